@@ -0,0 +1,89 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Statement;
+
+/**
+ * Outcome of one statement or sub-batch sent by MappingSession.BatchExecutor.
+ */
+public class BatchResult {
+    private final Statement    statement;
+    private final int          statementCount;
+    private final long         estimatedSize;
+    private volatile ResultSet resultSet;
+    private volatile Throwable error;
+
+    BatchResult(Statement statement, int statementCount, long estimatedSize) {
+        this.statement = statement;
+        this.statementCount = statementCount;
+        this.estimatedSize = estimatedSize;
+    }
+
+    /**
+     * @return the sent statement, a single statement or a batch
+     */
+    public Statement getStatement() {
+        return statement;
+    }
+
+    /**
+     * @return number of entity statements sent together
+     */
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * @return estimated size in bytes, see MappingBuilder.estimateSize()
+     */
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    /**
+     * @return ResultSet or null if failed
+     */
+    public ResultSet getResultSet() {
+        return resultSet;
+    }
+
+    /**
+     * @return the failure or null if succeeded
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    void setResultSet(ResultSet resultSet) {
+        this.resultSet = resultSet;
+    }
+
+    void setError(Throwable error) {
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult[statements=" + statementCount + ", size=" + estimatedSize
+                + (error == null ? ", success]" : ", error=" + error + "]");
+    }
+}
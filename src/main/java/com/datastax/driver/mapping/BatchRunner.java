@@ -0,0 +1,111 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Sends statements with a bounded number of concurrent requests. The next
+ * statement is sent when one completes, so no thread waits. Failures are
+ * recorded in the BatchResult of the statement and do not stop the others.
+ */
+class BatchRunner {
+
+    private final Session                           session;
+    private final List<BatchResult>                 batches;
+    private final AtomicInteger                     next = new AtomicInteger();
+    private final AtomicInteger                     remaining;
+    /** launches requested but not yet done, see launchNext() */
+    private final AtomicInteger                     pending = new AtomicInteger();
+    private final SettableFuture<List<BatchResult>> done = SettableFuture.create();
+
+    BatchRunner(Session session, List<BatchResult> batches) {
+        this.session = session;
+        this.batches = batches;
+        this.remaining = new AtomicInteger(batches.size());
+    }
+
+    /**
+     * @return the same BatchResults, completed when all statements are done
+     */
+    ListenableFuture<List<BatchResult>> execute(int maxInFlight) {
+        if (batches.isEmpty()) {
+            done.set(batches);
+        }
+        int workers = Math.min(Math.max(maxInFlight, 1), batches.size());
+        for (int i = 0; i < workers; i++) {
+            launchNext();
+        }
+        return done;
+    }
+
+    /**
+     * Statements completed synchronously only count the launch, it is made
+     * by the loop of the caller already launching, so the stack does not
+     * grow with the number of statements.
+     */
+    private void launchNext() {
+        if (pending.getAndIncrement() > 0) {
+            return;
+        }
+        do {
+            launch();
+        } while (pending.decrementAndGet() > 0);
+    }
+
+    private void launch() {
+        int idx = next.getAndIncrement();
+        if (idx >= batches.size()) {
+            return;
+        }
+        final BatchResult batch = batches.get(idx);
+        ListenableFuture<ResultSet> future;
+        try {
+            future = session.executeAsync(batch.getStatement());
+        } catch (RuntimeException e) {
+            future = Futures.immediateFailedFuture(e);
+        }
+        Futures.addCallback(future, new FutureCallback<ResultSet>() {
+            @Override
+            public void onSuccess(ResultSet rs) {
+                batch.setResultSet(rs);
+                completed();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                batch.setError(t);
+                completed();
+            }
+        });
+    }
+
+    private void completed() {
+        if (remaining.decrementAndGet() == 0) {
+            done.set(batches);
+        } else {
+            launchNext();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.mapping.builder.MappingBuilder;
+import com.datastax.driver.mapping.meta.EntityFieldMetaData;
+import com.datastax.driver.mapping.meta.EntityTypeMetadata;
+import com.datastax.driver.mapping.option.CounterOptions;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Sums counter deltas locally per row and counter column and writes the sums
+ * every CounterOptions.getFlushIntervalMillis() or on flush(). The deltas of
+ * one row are sent as a single UPDATE, the updates as counter batches
+ * grouped by partition. Adding a delta never blocks. Counter writes are not
+ * idempotent, so the deltas of a failed batch are logged and not retried.
+ * close() flushes what is left and must be called before the session is
+ * closed.
+ *
+ * <pre>
+ * CounterAccumulator acc = msession.newCounterAccumulator(new CounterOptions());
+ * acc.add(id, Entity.class, "hits", 1);
+ * acc.close();
+ * </pre>
+ */
+public class CounterAccumulator implements Closeable {
+    private static final Logger                log     = Logger.getLogger(CounterAccumulator.class.getName());
+
+    /** value of a counter removed from the map, adders must look it up again */
+    private static final long                  RETIRED = Long.MIN_VALUE;
+
+    private final MappingSession               msession;
+    private final CounterOptions               options;
+    private final ConcurrentMap<Key, AtomicLong> deltas;
+    private final ScheduledFuture<?>           timer;
+    private final Object                       flushLock = new Object();
+    private volatile boolean                   closed;
+
+    CounterAccumulator(MappingSession msession, CounterOptions options) {
+        this.msession = msession;
+        this.options = options;
+        this.deltas = new ConcurrentHashMap<Key, AtomicLong>(16, 0.75f, options.getConcurrencyLevel());
+        if (options.getFlushIntervalMillis() > 0) {
+            timer = MappingSession.getScheduler().scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            }, options.getFlushIntervalMillis(), options.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            timer = null;
+        }
+    }
+
+    /**
+     * Add the delta to the local sum of a counter column.
+     * 
+     * @param id Primary Key
+     * @param class Entity.class
+     * @param propertyName counter property of Entity
+     * @param delta value to add, negative to decrement
+     */
+    public void add(Object id, Class<?> clazz, String propertyName, long delta) {
+        if (closed) {
+            throw new IllegalStateException("CounterAccumulator is closed");
+        }
+        if (delta != 0) {
+            add(new Key(id, clazz, propertyName), delta);
+        }
+    }
+
+    private void add(Key key, long delta) {
+        for (;;) {
+            AtomicLong counter = deltas.get(key);
+            if (counter == null) {
+                counter = deltas.putIfAbsent(key, new AtomicLong(delta));
+                if (counter == null) {
+                    return;
+                }
+            }
+            long value = counter.get();
+            if (value != RETIRED && counter.compareAndSet(value, value + delta)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return number of counter columns with deltas not yet sent
+     */
+    public int getPending() {
+        return deltas.size();
+    }
+
+    /**
+     * Send the accumulated deltas.
+     * 
+     * @return ListenableFuture of the outcome per sent statement, fails only
+     *         if the updates could not be prepared
+     */
+    public ListenableFuture<List<BatchResult>> flush() {
+        Map<List<Object>, Row> rows = new LinkedHashMap<List<Object>, Row>();
+        synchronized (flushLock) {
+            for (Map.Entry<Key, AtomicLong> entry : deltas.entrySet()) {
+                AtomicLong counter = entry.getValue();
+                long delta = counter.getAndSet(0);
+                if (delta == 0) {
+                    // idle since the last flush
+                    if (counter.compareAndSet(0, RETIRED)) {
+                        deltas.remove(entry.getKey(), counter);
+                    }
+                    continue;
+                }
+                Key key = entry.getKey();
+                Row row = rows.get(key.row);
+                if (row == null) {
+                    row = new Row(key);
+                    rows.put(key.row, row);
+                }
+                row.add(key, delta);
+            }
+        }
+        if (rows.isEmpty()) {
+            return Futures.immediateFuture(Collections.<BatchResult> emptyList());
+        }
+
+        ListenableFuture<List<BatchResult>> sent;
+        try {
+            MappingSession.BatchExecutor batch = msession.withBatch();
+            for (Row row : rows.values()) {
+                batch.add(MappingBuilder.prepareIncrement(row.id, row.clazz, row.propertyNames(), row.deltas(), null,
+                        msession.getKeyspace(), msession.getSession()), row.clazz, row.id);
+            }
+            batch.withOptions(options.getBatchOptions());
+            sent = batch.executeWithReportAsync();
+        } catch (RuntimeException e) {
+            // nothing was sent, keep the deltas for the next flush
+            for (Row row : rows.values()) {
+                row.restore();
+            }
+            sent = Futures.immediateFailedFuture(e);
+        }
+        Futures.addCallback(sent, new FutureCallback<List<BatchResult>>() {
+            @Override
+            public void onSuccess(List<BatchResult> results) {
+                for (BatchResult r : results) {
+                    if (!r.isSuccess()) {
+                        log.log(Level.WARNING, "CounterAccumulator: " + r, r.getError());
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                log.log(Level.WARNING, "CounterAccumulator flush failed", t);
+            }
+        });
+        return sent;
+    }
+
+    /**
+     * Stop the periodic flush, send the accumulated deltas and wait for them.
+     * Further deltas are rejected.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        MappingSession.getUninterruptibly(flush());
+    }
+
+    /** counter column of a row */
+    private static class Key {
+        final Object       id;
+        final Class<?>     clazz;
+        final String       propertyName;
+        final List<Object> row;
+
+        Key(Object id, Class<?> clazz, String propertyName) {
+            EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
+            EntityFieldMetaData fmeta = emeta.getFieldMetadata(propertyName);
+            if (fmeta == null || fmeta.getDataType() != DataType.Name.COUNTER) {
+                throw new IllegalArgumentException(clazz.getName() + "." + propertyName + " is not a counter column");
+            }
+            this.id = id;
+            this.clazz = clazz;
+            this.propertyName = fmeta.getName();
+            this.row = new ArrayList<Object>(emeta.getIdValues(id));
+            this.row.add(0, clazz);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * row.hashCode() + propertyName.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return propertyName.equals(other.propertyName) && row.equals(other.row);
+        }
+    }
+
+    /** deltas of the counter columns of one row */
+    private class Row {
+        final Object             id;
+        final Class<?>           clazz;
+        final Map<Key, Long>     sums   = new LinkedHashMap<Key, Long>();
+
+        Row(Key key) {
+            this.id = key.id;
+            this.clazz = key.clazz;
+        }
+
+        void add(Key key, long delta) {
+            sums.put(key, delta);
+        }
+
+        String[] propertyNames() {
+            String[] names = new String[sums.size()];
+            int i = 0;
+            for (Key key : sums.keySet()) {
+                names[i++] = key.propertyName;
+            }
+            return names;
+        }
+
+        long[] deltas() {
+            long[] values = new long[sums.size()];
+            int i = 0;
+            for (Long delta : sums.values()) {
+                values[i++] = delta;
+            }
+            return values;
+        }
+
+        void restore() {
+            for (Map.Entry<Key, Long> entry : sums.entrySet()) {
+                CounterAccumulator.this.add(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.datastax.driver.mapping.builder.MappingBuilder;
+import com.datastax.driver.mapping.meta.EntityTypeMetadata;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Read-through cache of entities by primary key, used by MappingSession for
+ * the entities annotated with @Cacheable. Entries are added by get() and
+ * getAll() and dropped by the writes of the same MappingSession. The cache
+ * keeps its own copy of each entity and every hit returns a new copy, so
+ * readers may modify what they get.
+ * <p>
+ * Reads with ReadOptions.setConsistencyLevel() bypass the cache, they
+ * neither use nor fill it.
+ *
+ * <pre>
+ * msession.setEntityCache(new EntityCache(10000, 60, TimeUnit.SECONDS, true));
+ * </pre>
+ */
+public class EntityCache {
+
+    /** cached for the ids known to be absent */
+    private static final Object         MISSING = new Object();
+
+    /** number of generation slots, a power of two */
+    private static final int            GENERATIONS = 1024;
+
+    private final Cache<List<Object>, Object> cache;
+    private final boolean               cacheMissing;
+
+    /**
+     * bumped by invalidate() for the keys hashed to a slot, a load which
+     * started before the bump does not fill the cache.
+     */
+    private final AtomicLongArray       generations = new AtomicLongArray(GENERATIONS);
+
+    /**
+     * @param maximumSize maximum number of cached entities
+     * @param expireAfterWrite time an entity is kept after it is loaded
+     * @param unit TimeUnit of expireAfterWrite
+     * @param cacheMissing true to remember the ids which are not found
+     */
+    public EntityCache(long maximumSize, long expireAfterWrite, TimeUnit unit, boolean cacheMissing) {
+        this(CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite, unit)
+                .recordStats()
+                .<List<Object>, Object> build(), cacheMissing);
+    }
+
+    /**
+     * Use customized cache. Keys are the entity class followed by the primary
+     * key values.
+     */
+    public EntityCache(Cache<List<Object>, Object> cache, boolean cacheMissing) {
+        this.cache = cache;
+        this.cacheMissing = cacheMissing;
+    }
+
+    /**
+     * Hit and miss statistics, recorded unless the cache is customized.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public Cache<List<Object>, Object> getCache() {
+        return cache;
+    }
+
+    public boolean isCacheMissing() {
+        return cacheMissing;
+    }
+
+    /**
+     * Drop the entity with the given id.
+     */
+    public void invalidate(Class<?> clazz, Object id) {
+        List<Object> key = key(clazz, id);
+        generations.incrementAndGet(slot(key));
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < GENERATIONS; i++) {
+            generations.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return true if the entities of the class are cached
+     */
+    static boolean isCacheable(Class<?> clazz) {
+        return EntityTypeParser.getEntityMetadata(clazz).isCacheable();
+    }
+
+    /**
+     * @return copy of the cached entity or null if not cached, see isMissing()
+     */
+    Object lookup(Class<?> clazz, Object id) {
+        Object cached = cache.getIfPresent(key(clazz, id));
+        return cached == null || cached == MISSING ? cached : MappingBuilder.copy(cached);
+    }
+
+    /**
+     * @return true if the value of lookup() is cached absence of the entity
+     */
+    static boolean isMissing(Object cached) {
+        return cached == MISSING;
+    }
+
+    /**
+     * Take before the entity is loaded and pass to put().
+     * 
+     * @return generation of the id
+     */
+    long generation(Class<?> clazz, Object id) {
+        return generations.get(slot(key(clazz, id)));
+    }
+
+    /**
+     * Skipped if the id was invalidated after generation() was taken, the
+     * loaded entity may predate the write which invalidated it.
+     * 
+     * @param entity loaded entity or null if not found, a copy is cached
+     * @param generation value of generation() taken before the load
+     */
+    void put(Class<?> clazz, Object id, Object entity, long generation) {
+        List<Object> key = key(clazz, id);
+        int slot = slot(key);
+        if (generations.get(slot) != generation) {
+            return;
+        }
+        if (entity != null) {
+            cache.put(key, MappingBuilder.copy(entity));
+        } else if (cacheMissing) {
+            cache.put(key, MISSING);
+        } else {
+            return;
+        }
+        // invalidated while putting
+        if (generations.get(slot) != generation) {
+            cache.invalidate(key);
+        }
+    }
+
+    private static int slot(List<Object> key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return h & (GENERATIONS - 1);
+    }
+
+    private static List<Object> key(Class<?> clazz, Object id) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        List<Object> key = entityMetadata.getIdValues(id);
+        key.add(0, clazz);
+        return key;
+    }
+}
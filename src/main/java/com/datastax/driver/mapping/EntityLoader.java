@@ -0,0 +1,158 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.datastax.driver.mapping.option.LoaderOptions;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Collects the ids requested within a short window and loads them together
+ * with MappingSession.getAllAsync(). The batch is dispatched when the first
+ * id has waited LoaderOptions.getMaxDelayMillis() or when
+ * LoaderOptions.getMaxBatchSize() ids are collected, whichever comes first.
+ * Each caller gets its own future. Instances are thread safe.
+ *
+ * <pre>
+ * EntityLoader&lt;Entity&gt; loader = msession.newLoader(Entity.class);
+ * ListenableFuture&lt;Entity&gt; f = loader.load(id);
+ * </pre>
+ */
+public class EntityLoader<T> {
+
+    private final MappingSession msession;
+    private final Class<T>       clazz;
+    private final LoaderOptions  options;
+
+    private final Object         lock    = new Object();
+    private List<Pending<T>>     pending = new ArrayList<Pending<T>>();
+    private ScheduledFuture<?>   timer;
+
+    EntityLoader(MappingSession msession, Class<T> clazz, LoaderOptions options) {
+        this.msession = msession;
+        this.clazz = clazz;
+        this.options = options;
+    }
+
+    /**
+     * Load the entity with the next batch.
+     *
+     * @param id primary key
+     * @return ListenableFuture of Entity instance or null
+     */
+    public ListenableFuture<T> load(Object id) {
+        SettableFuture<T> result = SettableFuture.create();
+        List<Pending<T>> batch = null;
+        synchronized (lock) {
+            pending.add(new Pending<T>(id, result));
+            if (pending.size() >= options.getMaxBatchSize()) {
+                batch = take();
+            } else if (pending.size() == 1) {
+                timer = MappingSession.getScheduler().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        flush();
+                    }
+                }, options.getMaxDelayMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+        if (batch != null) {
+            dispatch(batch);
+        }
+        return result;
+    }
+
+    /**
+     * Load the entity with the next batch and wait for it.
+     *
+     * @param id primary key
+     * @return Entity instance or null
+     */
+    public T get(Object id) {
+        return MappingSession.getUninterruptibly(load(id));
+    }
+
+    /**
+     * Dispatch the collected ids without waiting for the window to close.
+     */
+    public void flush() {
+        List<Pending<T>> batch;
+        synchronized (lock) {
+            batch = take();
+        }
+        dispatch(batch);
+    }
+
+    /** must hold the lock */
+    private List<Pending<T>> take() {
+        List<Pending<T>> batch = pending;
+        pending = new ArrayList<Pending<T>>();
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(final List<Pending<T>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Object> ids = new ArrayList<Object>(batch.size());
+        for (Pending<T> p : batch) {
+            ids.add(p.id);
+        }
+        ListenableFuture<Map<Object, T>> loaded;
+        try {
+            loaded = msession.getAllAsync(clazz, ids, options.getReadOptions());
+        } catch (RuntimeException e) {
+            loaded = Futures.immediateFailedFuture(e);
+        }
+        Futures.addCallback(loaded, new FutureCallback<Map<Object, T>>() {
+            @Override
+            public void onSuccess(Map<Object, T> entities) {
+                for (Pending<T> p : batch) {
+                    p.result.set(entities.get(p.id));
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                for (Pending<T> p : batch) {
+                    p.result.setException(t);
+                }
+            }
+        });
+    }
+
+    private static class Pending<T> {
+        final Object            id;
+        final SettableFuture<T> result;
+
+        Pending(Object id, SettableFuture<T> result) {
+            this.id = id;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.datastax.driver.mapping.meta.EntityFieldMetaData;
+import com.datastax.driver.mapping.meta.EntityTypeMetadata;
+import com.datastax.driver.mapping.meta.EnumFieldAccessor;
+import com.datastax.driver.mapping.meta.FieldAccessor;
+import com.datastax.driver.mapping.meta.PrimaryKeyMetadata;
+
+/**
+ * Builds EntityTypeMetadata from the values known at compile time. Used by
+ * the code generated with EntityMetadataProcessor and follows the same rules
+ * as EntityTypeParser, so both produce the same metadata. Properties of the
+ * key class go between startKey() and endKey(). Modifiers such as version()
+ * apply to the last added property.
+ */
+public class EntityMetadataBuilder {
+    private final EntityTypeMetadata        result;
+    private final Deque<PrimaryKeyMetadata> keys     = new ArrayDeque<PrimaryKeyMetadata>();
+    private final Deque<Boolean>            embedded = new ArrayDeque<Boolean>();
+    private EntityFieldMetaData             last;
+
+    public EntityMetadataBuilder(Class<?> entityClass, String tableName) {
+        if (tableName != null && tableName.length() > 0) {
+            result = new EntityTypeMetadata(entityClass, tableName);
+        } else {
+            result = new EntityTypeMetadata(entityClass);
+        }
+    }
+
+    public EntityMetadataBuilder index(String name, String columnList) {
+        result.addindex(name, columnList);
+        return this;
+    }
+
+    public EntityMetadataBuilder property(String value) {
+        result.addProperty(value);
+        return this;
+    }
+
+    public EntityMetadataBuilder ttl(int ttl) {
+        result.setTtl(ttl);
+        return this;
+    }
+
+    public EntityMetadataBuilder cacheable(boolean cacheable) {
+        result.setCacheable(cacheable);
+        return this;
+    }
+
+    public EntityMetadataBuilder skipNulls(boolean skipNulls) {
+        result.setSkipNulls(skipNulls);
+        return this;
+    }
+
+    /**
+     * Start the primary key. Key inside the key is the partition key.
+     * 
+     * @param isEmbedded true for @EmbeddedId, false for @Id
+     */
+    public EntityMetadataBuilder startKey(String name, Class<?> type, String column, String columnDefinition, boolean isEmbedded, FieldAccessor accessor) {
+        PrimaryKeyMetadata parent = keys.peek();
+        PrimaryKeyMetadata pkm = new PrimaryKeyMetadata();
+        pkm.setPartition(parent != null);
+        if (parent != null) {
+            parent.setPartitionKey(pkm);
+        } else {
+            result.setPrimaryKeyMetadata(pkm);
+        }
+        pkm.setOwnField(newField(name, type, column, columnDefinition, accessor));
+        keys.push(pkm);
+        embedded.push(isEmbedded);
+        last = null;
+        return this;
+    }
+
+    /**
+     * Close the key started by startKey(). Own field of @Id key becomes the
+     * last added property.
+     */
+    public EntityMetadataBuilder endKey() {
+        PrimaryKeyMetadata pkm = keys.pop();
+        last = null;
+        if (!embedded.pop()) {
+            last = pkm.getOwnField();
+            result.addField(last);
+        }
+        return this;
+    }
+
+    /**
+     * Add property. Ignored if the type can't be mapped to a column.
+     */
+    public EntityMetadataBuilder field(String name, Class<?> type, String column, String columnDefinition, FieldAccessor accessor) {
+        last = null;
+        if (!EntityTypeParser.isMappedType(type)) {
+            return this;
+        }
+        EntityFieldMetaData fd = newField(name, type, column, columnDefinition, accessor);
+        PrimaryKeyMetadata pkmeta = keys.peek();
+        if (pkmeta != null) {
+            fd.setPartition(pkmeta.isPartition());
+            fd.setPrimary(true);
+            pkmeta.addField(fd);
+        }
+        result.addField(fd);
+        last = fd;
+        return this;
+    }
+
+    /** last property is @Version */
+    public EntityMetadataBuilder version() {
+        if (last != null) {
+            result.setVersionField(last);
+        }
+        return this;
+    }
+
+    /** last property is @Static */
+    public EntityMetadataBuilder staticColumn() {
+        if (last != null) {
+            last.setStatic(true);
+        }
+        return this;
+    }
+
+    /** last property is @GeneratedValue */
+    public EntityMetadataBuilder generated() {
+        if (last != null) {
+            last.setAutoGenerate(true);
+        }
+        return this;
+    }
+
+    /** last property has @CollectionType */
+    public EntityMetadataBuilder collectionType(Class<?> collectionType) {
+        if (last != null) {
+            last.setCollectionType(collectionType);
+        }
+        return this;
+    }
+
+    /**
+     * generic types of the last collection property, null for not a class.
+     * No types for the raw collection.
+     */
+    public EntityMetadataBuilder generics(Class<?>... types) {
+        if (last != null) {
+            Type[] fieldGenerics = types.length == 0 ? null : types;
+            String genericDef = EntityTypeParser.getGenericDef(last.getType(), fieldGenerics);
+            if (genericDef != null) {
+                last.setGenericDef(genericDef);
+                last.setGenericTypes(EntityTypeParser.getGenericClasses(fieldGenerics));
+            }
+        }
+        return this;
+    }
+
+    public EntityTypeMetadata build() {
+        if (!keys.isEmpty()) {
+            throw new IllegalStateException("endKey() is missing for " + result.getEntityClass().getName());
+        }
+        return result;
+    }
+
+    private EntityFieldMetaData newField(String name, Class<?> type, String column, String columnDefinition, FieldAccessor accessor) {
+        String columnName = (column == null || column.length() < 1) ? name : column;
+        return new EntityFieldMetaData(name, type, EntityTypeParser.getColumnDataType(type, columnDefinition), EnumFieldAccessor.wrap(type, accessor), columnName);
+    }
+}
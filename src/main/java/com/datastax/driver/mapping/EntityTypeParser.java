@@ -18,6 +18,7 @@ package com.datastax.driver.mapping;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
@@ -25,7 +26,9 @@ import java.math.BigInteger;
 import java.net.InetAddress;
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.logging.Logger;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.EmbeddedId;
 import javax.persistence.GeneratedValue;
@@ -37,11 +40,20 @@ import javax.persistence.Version;
 
 import com.datastax.driver.core.DataType;
 import com.datastax.driver.mapping.annotation.CollectionType;
+import com.datastax.driver.mapping.annotation.SkipNulls;
 import com.datastax.driver.mapping.annotation.Static;
 import com.datastax.driver.mapping.annotation.TableProperties;
 import com.datastax.driver.mapping.annotation.TableProperty;
 import com.datastax.driver.mapping.annotation.Ttl;
+import com.datastax.driver.mapping.meta.AccessorType;
+import com.datastax.driver.mapping.meta.DirectFieldAccessor;
 import com.datastax.driver.mapping.meta.EntityFieldMetaData;
+import com.datastax.driver.mapping.meta.EntityMetadataFactory;
+import com.datastax.driver.mapping.meta.EnumFieldAccessor;
+import com.datastax.driver.mapping.meta.FieldAccessor;
+import com.datastax.driver.mapping.meta.MethodHandleFieldAccessor;
+import com.datastax.driver.mapping.meta.LambdaFieldAccessor;
+import com.datastax.driver.mapping.meta.ReflectionFieldAccessor;
 import com.datastax.driver.mapping.meta.EntityTypeMetadata;
 import com.datastax.driver.mapping.meta.PrimaryKeyMetadata;
 import com.google.common.primitives.Primitives;
@@ -51,8 +63,14 @@ import com.google.common.primitives.Primitives;
  * instance.
  */
 public class EntityTypeParser {
+    private static final Logger log = Logger.getLogger(EntityTypeParser.class.getName());
+
+    /** suffix of the metadata classes generated by EntityMetadataProcessor */
+    public static final String GENERATED_SUFFIX = "_Metadata";
+
     private static Map<Class<?>, DataType.Name>            javaTypeToDataType = new HashMap<Class<?>, DataType.Name>();
     private static final Map<Class<?>, EntityTypeMetadata> entityData         = new HashMap<Class<?>, EntityTypeMetadata>();
+    private static volatile AccessorType                   accessorType       = AccessorType.METHOD_HANDLE;
 
     static {
         // Mapping java types to DATASTAX driver types
@@ -79,6 +97,20 @@ public class EntityTypeParser {
         javaTypeToDataType.put(Enum.class, DataType.Name.VARCHAR);
     }
 
+    /**
+     * Strategy to access entity properties. Must be set before entities are
+     * parsed, already parsed entities keep their accessors until removed.
+     * 
+     * @param type AccessorType, METHOD_HANDLE by default
+     */
+    public static void setAccessorType(AccessorType type) {
+        accessorType = type;
+    }
+
+    public static AccessorType getAccessorType() {
+        return accessorType;
+    }
+
     /**
      * to override default java to datastax type mapping
      * 
@@ -131,11 +163,44 @@ public class EntityTypeParser {
      * persisted
      */
     private static <T> EntityTypeMetadata parseEntityClass(Class<T> clazz) {
+        EntityTypeMetadata result = loadGeneratedMetadata(clazz);
+        if (result != null) {
+            return result;
+        }
+        return parseWithReflection(clazz);
+    }
+
+    /**
+     * Parse the entity with reflection even if there is generated metadata,
+     * not cached. Used to check the generated metadata against the parser.
+     */
+    static <T> EntityTypeMetadata parseWithReflection(Class<T> clazz) {
         EntityTypeMetadata result = parseEntityLevelMetadata(clazz);
         parsePropertyLevelMetadata(result.getEntityClass(), result, null, false);
         return result;
     }
 
+    /**
+     * Metadata generated at compile time by EntityMetadataProcessor is named
+     * as the entity class with {@value #GENERATED_SUFFIX} suffix. Returns null
+     * if there is no generated metadata for the entity.
+     */
+    private static <T> EntityTypeMetadata loadGeneratedMetadata(Class<T> clazz) {
+        Class<?> factory;
+        try {
+            factory = Class.forName(clazz.getName() + GENERATED_SUFFIX, true, clazz.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+
+        try {
+            return ((EntityMetadataFactory) factory.newInstance()).create();
+        } catch (Exception e) {
+            log.warning("Can't load generated metadata for " + clazz.getName() + ", fallback to reflection: " + e);
+            return null;
+        }
+    }
+
     /**
      * Parses class level annotations and initializes EntityMetadata object for
      * given entity class
@@ -179,6 +244,18 @@ public class EntityTypeParser {
         if (annotation instanceof Ttl) {
             result.setTtl(((Ttl) annotation).value());
         }
+
+        // parse cacheable
+        annotation = clazz.getAnnotation(Cacheable.class);
+        if (annotation instanceof Cacheable) {
+            result.setCacheable(((Cacheable) annotation).value());
+        }
+
+        // parse skip nulls
+        annotation = clazz.getAnnotation(SkipNulls.class);
+        if (annotation instanceof SkipNulls) {
+            result.setSkipNulls(((SkipNulls) annotation).value());
+        }
         return result;
     }
 
@@ -206,7 +283,6 @@ public class EntityTypeParser {
                 Method getter = null;
                 Method setter = null;
                 for (Method m : methods) {
-
                     // before add a field we need to make sure both getter and
                     // setter are defined
                     if (isGetterFor(m, f.getName())) {
@@ -215,52 +291,89 @@ public class EntityTypeParser {
                         setter = m;
                     }
                     if (setter != null && getter != null) {
-                        String columnName = getColumnName(f);
-                        DataType.Name dataType = getColumnDataType(f);
-                        EntityFieldMetaData fd = new EntityFieldMetaData(f, dataType, getter, setter, columnName);
-
-                        if (pkmeta != null && !isOwnField) {
-                            fd.setPartition(pkmeta.isPartition());
-                            fd.setPrimary(true);
-                            pkmeta.addField(fd);
-                        } else if (isOwnField) {
-                            pkm.setOwnField(fd);
-                        }
-
-                        if (f.getAnnotation(EmbeddedId.class) != null) {
-                            break;
-                        }
-
-                        if (f.getAnnotation(Version.class) != null) {
-                            result.setVersionField(fd);
-                        }
-
-                        setCollections(f, fd);
-
-                        if (f.getAnnotation(Static.class) != null) {
-                            fd.setStatic(true);
-                        }
-
-                        if (f.getAnnotation(GeneratedValue.class) != null) {
-                            fd.setAutoGenerate(true);
-                        }
-                        result.addField(fd);
-                        break; // exit inner loop on filed's methods and go to
-                               // the next field
+                        break;
                     }
                 }
+
+                FieldAccessor accessor = createAccessor(f, getter, setter);
+                if (accessor == null) {
+                    continue;
+                }
+
+                String columnName = getColumnName(f);
+                DataType.Name dataType = getColumnDataType(f);
+                EntityFieldMetaData fd = new EntityFieldMetaData(f, dataType, accessor, columnName);
+
+                if (pkmeta != null && !isOwnField) {
+                    fd.setPartition(pkmeta.isPartition());
+                    fd.setPrimary(true);
+                    pkmeta.addField(fd);
+                } else if (isOwnField) {
+                    pkm.setOwnField(fd);
+                }
+
+                if (f.getAnnotation(EmbeddedId.class) != null) {
+                    continue;
+                }
+
+                if (f.getAnnotation(Version.class) != null) {
+                    result.setVersionField(fd);
+                }
+
+                setCollections(f, fd);
+
+                if (f.getAnnotation(Static.class) != null) {
+                    fd.setStatic(true);
+                }
+
+                if (f.getAnnotation(GeneratedValue.class) != null) {
+                    fd.setAutoGenerate(true);
+                }
+                result.addField(fd);
             }
         }
         return result;
     }
 
+    /**
+     * Create accessor for the field according to the accessorType. Returns
+     * null if the field can't be accessed and must not be persisted.
+     */
+    private static FieldAccessor createAccessor(Field f, Method getter, Method setter) {
+        FieldAccessor accessor = null;
+        if (accessorType == AccessorType.FIELD) {
+            int mod = f.getModifiers();
+            if (!Modifier.isStatic(mod) && !Modifier.isFinal(mod) && !Modifier.isTransient(mod)) {
+                accessor = new DirectFieldAccessor(f);
+            }
+        } else if (getter != null && setter != null) {
+            if (accessorType == AccessorType.LAMBDA) {
+                try {
+                    accessor = new LambdaFieldAccessor(getter, setter);
+                } catch (ReflectiveOperationException e) {
+                    log.fine("Can't create lambda accessor for " + f + ", fallback to method handles: " + e);
+                }
+            }
+            if (accessor == null && accessorType != AccessorType.REFLECTION) {
+                try {
+                    accessor = new MethodHandleFieldAccessor(getter, setter);
+                } catch (IllegalAccessException e) {
+                    // not public, fallback to reflection
+                }
+            }
+            if (accessor == null) {
+                accessor = new ReflectionFieldAccessor(getter, setter);
+            }
+        }
+        return accessor == null ? null : EnumFieldAccessor.wrap(f.getType(), accessor);
+    }
+
     private static void setCollections(Field f, EntityFieldMetaData fd) {
-        if (isList(f.getType())) {
-            fd.setGenericDef(genericsOfList(f));
-        } else if (isSet(f.getType())) {
-            fd.setGenericDef(genericsOfSet(f));
-        } else if (isMap(f.getType())) {
-            fd.setGenericDef(genericsOfMap(f));
+        Type[] fieldGenerics = getGenericTypes(f);
+        String genericDef = getGenericDef(f.getType(), fieldGenerics);
+        if (genericDef != null) {
+            fd.setGenericDef(genericDef);
+            fd.setGenericTypes(getGenericClasses(fieldGenerics));
         }
 
         Annotation annotation = f.getAnnotation(CollectionType.class);
@@ -292,28 +405,51 @@ public class EntityTypeParser {
      * @Column columnDefinition may override datatype.
      */
     private static DataType.Name getColumnDataType(Field f) {
-        Class<?> t = f.getType();
+        String typedef = null;
+        Annotation columnA = f.getAnnotation(Column.class);
+        if (columnA instanceof Column) {
+            typedef = ((Column) columnA).columnDefinition();
+        }
+        return getColumnDataType(f.getType(), typedef);
+    }
+
+    static DataType.Name getColumnDataType(Class<?> t, String typedef) {
         DataType.Name dataType = javaTypeToDataType.get(t);
 
         if (t.isEnum()) { // enum is a special type.
             dataType = javaTypeToDataType.get(Enum.class);
         }
 
-        Annotation columnA = f.getAnnotation(Column.class);
-        if (columnA instanceof Column) {
-            String typedef = ((Column) columnA).columnDefinition();
-            if (typedef != null && typedef.length() > 0) {
-                DataType.Name dt = DataType.Name.valueOf(typedef.toUpperCase());
-                if (dt != null) {
-                    dataType = dt;
-                }
+        if (typedef != null && typedef.length() > 0) {
+            DataType.Name dt = DataType.Name.valueOf(typedef.toUpperCase());
+            if (dt != null) {
+                dataType = dt;
             }
         }
         return dataType;
     }
 
-    private static String genericsOfList(Field f) {
-        Type[] fieldGenerics = getGenericTypes(f);
+    /** true if the java type can be persisted as a column */
+    static boolean isMappedType(Class<?> t) {
+        return javaTypeToDataType.get(t) != null || t.isEnum();
+    }
+
+    /**
+     * column definition for the collection with given generic types, null if
+     * the type is not a collection.
+     */
+    static String getGenericDef(Class<?> t, Type[] fieldGenerics) {
+        if (isList(t)) {
+            return genericsOfList(fieldGenerics);
+        } else if (isSet(t)) {
+            return genericsOfSet(fieldGenerics);
+        } else if (isMap(t)) {
+            return genericsOfMap(fieldGenerics);
+        }
+        return null;
+    }
+
+    private static String genericsOfList(Type[] fieldGenerics) {
         if (fieldGenerics != null) {
             return String.format("list<%s>", javaTypeToDataType.get(fieldGenerics[0]));
         } else {
@@ -321,8 +457,7 @@ public class EntityTypeParser {
         }
     }
 
-    private static String genericsOfSet(Field f) {
-        Type[] fieldGenerics = getGenericTypes(f);
+    private static String genericsOfSet(Type[] fieldGenerics) {
         if (fieldGenerics != null) {
             return String.format("set<%s>", javaTypeToDataType.get(fieldGenerics[0]));
         } else {
@@ -330,8 +465,7 @@ public class EntityTypeParser {
         }
     }
 
-    private static String genericsOfMap(Field f) {
-        Type[] fieldGenerics = getGenericTypes(f);
+    private static String genericsOfMap(Type[] fieldGenerics) {
         if (fieldGenerics != null) {
             return String.format("map<%s, %s>", javaTypeToDataType.get(fieldGenerics[0]), javaTypeToDataType.get(fieldGenerics[1]));
         } else {
@@ -339,6 +473,22 @@ public class EntityTypeParser {
         }
     }
 
+    /**
+     * classes of the generic types, null for the type which is not a class
+     */
+    static Class<?>[] getGenericClasses(Type[] fieldGenerics) {
+        if (fieldGenerics == null) {
+            return null;
+        }
+        Class<?>[] classes = new Class<?>[fieldGenerics.length];
+        for (int i = 0; i < fieldGenerics.length; i++) {
+            if (fieldGenerics[i] instanceof Class) {
+                classes[i] = (Class<?>) fieldGenerics[i];
+            }
+        }
+        return classes;
+    }
+
     private static Type[] getGenericTypes(Field f) {
         Type genType = f.getGenericType();
         if (genType instanceof ParameterizedType) {
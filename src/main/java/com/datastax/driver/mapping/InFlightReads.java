@@ -0,0 +1,97 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.datastax.driver.mapping.builder.MappingBuilder;
+import com.datastax.driver.mapping.meta.EntityTypeMetadata;
+import com.datastax.driver.mapping.option.ReadOptions;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Reads of the same entity by the same primary key and consistency level
+ * which overlap in time share one query. The first caller runs the query,
+ * callers arriving before it completes get the same result, or a copy of
+ * it when copies are requested.
+ */
+class InFlightReads {
+
+    private final ConcurrentMap<List<Object>, ListenableFuture<?>> inFlight = new ConcurrentHashMap<List<Object>, ListenableFuture<?>>();
+    private final boolean                                          copy;
+
+    /**
+     * @param copy true to give each joining caller its own copy of the entity
+     */
+    InFlightReads(boolean copy) {
+        this.copy = copy;
+    }
+
+    /**
+     * @param loader starts the query when no read of the key is in flight
+     */
+    @SuppressWarnings("unchecked")
+    <T> ListenableFuture<T> get(Class<T> clazz, Object id, ReadOptions options, Callable<ListenableFuture<T>> loader) {
+        final List<Object> key = key(clazz, id, options);
+        final SettableFuture<T> result = SettableFuture.create();
+        ListenableFuture<T> existing = (ListenableFuture<T>) inFlight.putIfAbsent(key, result);
+        if (existing != null) {
+            return copy ? Futures.transform(existing, new Function<T, T>() {
+                @Override
+                public T apply(T entity) {
+                    return entity == null ? null : MappingBuilder.copy(entity);
+                }
+            }) : existing;
+        }
+
+        ListenableFuture<T> future;
+        try {
+            future = loader.call();
+        } catch (Exception e) {
+            future = Futures.immediateFailedFuture(e);
+        }
+        Futures.addCallback(future, new FutureCallback<T>() {
+            @Override
+            public void onSuccess(T entity) {
+                // callers arriving from now on start a new query
+                inFlight.remove(key, result);
+                result.set(entity);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                inFlight.remove(key, result);
+                result.setException(t);
+            }
+        });
+        return result;
+    }
+
+    private static List<Object> key(Class<?> clazz, Object id, ReadOptions options) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        List<Object> key = entityMetadata.getIdValues(id);
+        key.add(0, options == null ? null : options.getConsistencyLevel());
+        key.add(0, clazz);
+        return key;
+    }
+}
@@ -17,29 +17,56 @@ package com.datastax.driver.mapping;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.PreparedStatement;
-import com.datastax.driver.core.RegularStatement;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.Statement;
-import com.datastax.driver.core.querybuilder.Batch;
 import com.datastax.driver.core.querybuilder.BuiltStatement;
-import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.datastax.driver.mapping.builder.EntityTracker;
 import com.datastax.driver.mapping.builder.MappingBuilder;
 import com.datastax.driver.mapping.meta.EntityTypeMetadata;
 import com.datastax.driver.mapping.option.BatchOptions;
+import com.datastax.driver.mapping.option.CounterOptions;
+import com.datastax.driver.mapping.option.LoaderOptions;
 import com.datastax.driver.mapping.option.ReadOptions;
+import com.datastax.driver.mapping.option.ScanOptions;
+import com.datastax.driver.mapping.option.WriteBehindOptions;
 import com.datastax.driver.mapping.option.WriteOptions;
 import com.datastax.driver.mapping.schemasync.SchemaSync;
 import com.datastax.driver.mapping.schemasync.SyncOptionTypes;
 import com.datastax.driver.mapping.schemasync.SyncOptions;
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
 import com.google.common.cache.Cache;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 /**
  * Object Mapper API to work with entities to be persisted in Cassandra. This is
@@ -59,6 +86,10 @@ public class MappingSession {
 
     protected Session             session;
     protected String              keyspace;
+    protected Executor            executor;
+    protected EntityCache         entityCache;
+    protected InFlightReads       inFlightReads;
+    protected EntityTracker       tracker;
     protected SyncOptions 		  syncOptions = SyncOptions.withOptions();;
 
     public MappingSession() {}
@@ -126,16 +157,245 @@ public class MappingSession {
      * @return Entity instance or null
      */
     public <T> T get(Class<T> clazz, Object id, ReadOptions options) {
+        if (inFlightReads != null) {
+            return getUninterruptibly(getAsync(clazz, id, options));
+        }
         maybeSync(clazz);
+        EntityCache cache = cacheFor(clazz, options);
+        long generation = 0;
+        if (cache != null) {
+            Object cached = cache.lookup(clazz, id);
+            if (cached != null) {
+                return EntityCache.isMissing(cached) ? null : track(clazz.cast(cached));
+            }
+            generation = cache.generation(clazz, id);
+        }
+        T entity = null;
         BoundStatement bs = MappingBuilder.prepareSelect(clazz, id, options, keyspace, session);
         if (bs != null) {
             ResultSet rs = session.execute(bs);
             List<T> all = getFromResultSet(clazz, rs);
             if (all.size() > 0) {
-                return all.get(0);
+                entity = all.get(0);
             }
         }
-        return null;
+        if (cache != null) {
+            cache.put(clazz, id, entity, generation);
+        }
+        return entity;
+    }
+
+    /**
+     * Get Entity by Id(Primary Key) asynchronously. The row is mapped on the
+     * executor of the MappingSession.
+     * 
+     * @param class Entity.class
+     * @param id primary key
+     * @return ListenableFuture of Entity instance or null
+     */
+    public <T> ListenableFuture<T> getAsync(Class<T> clazz, Object id) {
+        return getAsync(clazz, id, null);
+    }
+
+    /**
+     * Get Entity by Id(Primary Key) asynchronously. The row is mapped on the
+     * executor of the MappingSession.
+     * 
+     * @param class Entity.class
+     * @param id primary key
+     * @param options ReadOptions
+     * @return ListenableFuture of Entity instance or null
+     */
+    public <T> ListenableFuture<T> getAsync(final Class<T> clazz, final Object id, final ReadOptions options) {
+        maybeSync(clazz);
+        final EntityCache cache = cacheFor(clazz, options);
+        if (cache != null) {
+            Object cached = cache.lookup(clazz, id);
+            if (cached != null) {
+                return Futures.immediateFuture(EntityCache.isMissing(cached) ? null : track(clazz.cast(cached)));
+            }
+        }
+        InFlightReads reads = inFlightReads;
+        if (reads == null) {
+            return trackOnCompletion(load(clazz, id, options, cache));
+        }
+        return trackOnCompletion(reads.get(clazz, id, options, new Callable<ListenableFuture<T>>() {
+            @Override
+            public ListenableFuture<T> call() {
+                return load(clazz, id, options, cache);
+            }
+        }));
+    }
+
+    /** query the entity and put the result into the cache if not null */
+    private <T> ListenableFuture<T> load(final Class<T> clazz, final Object id, ReadOptions options, final EntityCache cache) {
+        final long generation = cache == null ? 0 : cache.generation(clazz, id);
+        ListenableFuture<BoundStatement> bs = MappingBuilder.prepareSelectAsync(clazz, id, options, keyspace, session);
+        ListenableFuture<ResultSet> rs = Futures.transform(bs, new AsyncFunction<BoundStatement, ResultSet>() {
+            @Override
+            public ListenableFuture<ResultSet> apply(BoundStatement bs) {
+                return session.executeAsync(bs);
+            }
+        });
+        return Futures.transform(MappingBuilder.getFromResultSetAsync(clazz, rs, getExecutor()), new Function<List<T>, T>() {
+            @Override
+            public T apply(List<T> all) {
+                T entity = all.isEmpty() ? null : all.get(0);
+                if (cache != null) {
+                    cache.put(clazz, id, entity, generation);
+                }
+                return entity;
+            }
+        });
+    }
+
+    /**
+     * Get Entities by Ids(Primary Keys). The lookups run concurrently, at
+     * most ReadOptions.getMaxInFlight() at a time.
+     * 
+     * @param class Entity.class
+     * @param ids primary keys
+     * @return Map of Entities by ids in the order of ids, not found ids are absent
+     */
+    public <T> Map<Object, T> getAll(Class<T> clazz, Collection<?> ids) {
+        return getAll(clazz, ids, null);
+    }
+
+    /**
+     * Get Entities by Ids(Primary Keys). The lookups run concurrently, at
+     * most ReadOptions.getMaxInFlight() at a time.
+     * 
+     * @param class Entity.class
+     * @param ids primary keys
+     * @param options ReadOptions
+     * @return Map of Entities by ids in the order of ids, not found ids are absent
+     */
+    public <T> Map<Object, T> getAll(Class<T> clazz, Collection<?> ids, ReadOptions options) {
+        return getUninterruptibly(getAllAsync(clazz, ids, options));
+    }
+
+    /**
+     * Get Entities by Ids(Primary Keys) asynchronously.
+     * 
+     * @param class Entity.class
+     * @param ids primary keys
+     * @return ListenableFuture of Map of Entities by ids in the order of ids
+     */
+    public <T> ListenableFuture<Map<Object, T>> getAllAsync(Class<T> clazz, Collection<?> ids) {
+        return getAllAsync(clazz, ids, null);
+    }
+
+    /**
+     * Get Entities by Ids(Primary Keys) asynchronously. With
+     * ReadOptions.setGroupByPartition(true) ids which differ only in the last
+     * clustering column are loaded with one IN query.
+     * 
+     * @param class Entity.class
+     * @param ids primary keys
+     * @param options ReadOptions
+     * @return ListenableFuture of Map of Entities by ids in the order of ids
+     */
+    public <T> ListenableFuture<Map<Object, T>> getAllAsync(final Class<T> clazz, Collection<?> ids, ReadOptions options) {
+        maybeSync(clazz);
+        final EntityCache cache = cacheFor(clazz, options);
+        if (cache == null) {
+            return trackValuesOnCompletion(new MultiGet<T>(this, clazz, options).execute(ids));
+        }
+
+        // load only the ids which are not cached
+        final Collection<Object> keys = new LinkedHashSet<Object>(ids);
+        final Map<Object, Object> cached = new LinkedHashMap<Object, Object>(keys.size() * 2);
+        final List<Object> misses = new ArrayList<Object>();
+        final List<Long> generations = new ArrayList<Long>();
+        for (Object id : keys) {
+            Object value = cache.lookup(clazz, id);
+            if (value != null) {
+                cached.put(id, value);
+            } else {
+                misses.add(id);
+                generations.add(cache.generation(clazz, id));
+            }
+        }
+        ListenableFuture<Map<Object, T>> loaded = misses.isEmpty() ? Futures.immediateFuture(new LinkedHashMap<Object, T>())
+                : new MultiGet<T>(this, clazz, options).execute(misses);
+        return Futures.transform(loaded, new Function<Map<Object, T>, Map<Object, T>>() {
+            @Override
+            public Map<Object, T> apply(Map<Object, T> loaded) {
+                for (int i = 0; i < misses.size(); i++) {
+                    Object id = misses.get(i);
+                    cache.put(clazz, id, loaded.get(id), generations.get(i));
+                }
+                Map<Object, T> result = new LinkedHashMap<Object, T>(keys.size() * 2);
+                for (Object id : keys) {
+                    Object value = cached.containsKey(id) ? cached.get(id) : loaded.get(id);
+                    if (value != null && !EntityCache.isMissing(value)) {
+                        result.put(id, track(clazz.cast(value)));
+                    }
+                }
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Create a loader which batches the ids requested within a short window
+     * into one getAllAsync() call, see EntityLoader.
+     * 
+     * @param class Entity.class
+     * @return EntityLoader
+     */
+    public <T> EntityLoader<T> newLoader(Class<T> clazz) {
+        return newLoader(clazz, new LoaderOptions());
+    }
+
+    /**
+     * Create a loader which batches the ids requested within a short window
+     * into one getAllAsync() call, see EntityLoader.
+     * 
+     * @param class Entity.class
+     * @param options LoaderOptions
+     * @return EntityLoader
+     */
+    public <T> EntityLoader<T> newLoader(Class<T> clazz, LoaderOptions options) {
+        return new EntityLoader<T>(this, clazz, options);
+    }
+
+    /**
+     * Create a write-behind buffer which keeps the latest save or delete per
+     * primary key and sends them on flush, see WriteBehind. The buffer must
+     * be closed explicitly.
+     * 
+     * @param options WriteBehindOptions
+     * @return WriteBehind
+     */
+    public WriteBehind newWriteBehind(WriteBehindOptions options) {
+        return new WriteBehind(this, options);
+    }
+
+    /**
+     * Get Collection of Entities by custom Query Statement asynchronously.
+     * Rows are mapped on the executor of the MappingSession.
+     * 
+     * @param class Entity.class
+     * @param query Statement
+     * @return ListenableFuture of List<Entity>
+     */
+    public <T> ListenableFuture<List<T>> getByQueryAsync(Class<T> clazz, Statement query) {
+        maybeSync(clazz);
+        return trackAllOnCompletion(MappingBuilder.getFromResultSetAsync(clazz, session.executeAsync(query), getExecutor()));
+    }
+
+    /**
+     * Get Collection of Entities by custom Query String asynchronously.
+     * Rows are mapped on the executor of the MappingSession.
+     * 
+     * @param class Entity.class
+     * @param query String
+     * @return ListenableFuture of List<Entity>
+     */
+    public <T> ListenableFuture<List<T>> getByQueryAsync(Class<T> clazz, String query) {
+        maybeSync(clazz);
+        return trackAllOnCompletion(MappingBuilder.getFromResultSetAsync(clazz, session.executeAsync(query), getExecutor()));
     }
 
     /**
@@ -164,6 +424,88 @@ public class MappingSession {
         return getFromResultSet(clazz, session.execute(query));
     }
 
+    /**
+     * Iterate over Entities of custom Query Statement. Rows are mapped as they
+     * are read and pages are fetched on demand, so only the current page is
+     * held in memory. The page size is the fetch size of the statement.
+     * 
+     * @param class Entity.class
+     * @param query Statement
+     * @return Iterator<Entity>
+     */
+    public <T> Iterator<T> iterate(Class<T> clazz, Statement query) {
+        maybeSync(clazz);
+        return track(MappingBuilder.iterate(clazz, session.execute(query)));
+    }
+
+    /**
+     * Iterate over Entities of custom Query String. Rows are mapped as they
+     * are read and pages are fetched on demand.
+     * 
+     * @param class Entity.class
+     * @param query String
+     * @return Iterator<Entity>
+     */
+    public <T> Iterator<T> iterate(Class<T> clazz, String query) {
+        maybeSync(clazz);
+        return track(MappingBuilder.iterate(clazz, session.execute(query)));
+    }
+
+    /**
+     * Stream of Entities of custom Query Statement, lazily mapped as
+     * iterate(). The stream is sequential and consumed once.
+     * 
+     * @param class Entity.class
+     * @param query Statement
+     * @return Stream<Entity>
+     */
+    public <T> Stream<T> stream(Class<T> clazz, Statement query) {
+        return toStream(iterate(clazz, query));
+    }
+
+    /**
+     * Stream of Entities of custom Query String, lazily mapped as iterate().
+     * 
+     * @param class Entity.class
+     * @param query String
+     * @return Stream<Entity>
+     */
+    public <T> Stream<T> stream(Class<T> clazz, String query) {
+        return toStream(iterate(clazz, query));
+    }
+
+    private static <T> Stream<T> toStream(Iterator<T> it) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Scan all Entities of the table. The ring is split by token ranges which
+     * are scanned in parallel, entities are passed to the handler as they are
+     * read. Returns when the whole table is scanned.
+     * 
+     * @param class Entity.class
+     * @param handler thread safe callback receiving the entities
+     * @return number of scanned entities
+     */
+    public <T> long scan(Class<T> clazz, EntityHandler<? super T> handler) {
+        return scan(clazz, handler, new ScanOptions());
+    }
+
+    /**
+     * Scan all Entities of the table. The ring is split by token ranges which
+     * are scanned in parallel, entities are passed to the handler as they are
+     * read. Returns when the whole table is scanned.
+     * 
+     * @param class Entity.class
+     * @param handler thread safe callback receiving the entities
+     * @param options ScanOptions
+     * @return number of scanned entities
+     */
+    public <T> long scan(Class<T> clazz, EntityHandler<? super T> handler, ScanOptions options) {
+        maybeSync(clazz);
+        return new TokenScan<T>(clazz, track(handler), options, keyspace, session).execute();
+    }
+
     /**
      * Convert custom ResultSet into List<Entity>. No Cassandra invocations are
      * performed.
@@ -173,7 +515,7 @@ public class MappingSession {
      * @return List<Entity> or empty List<Entity> if nothing mapped.
      */
     public <T> List<T> getFromResultSet(Class<T> clazz, ResultSet rs) {
-        return MappingBuilder.getFromResultSet(clazz, rs);
+        return trackAll(MappingBuilder.getFromResultSet(clazz, rs));
     }
 
     /**
@@ -185,7 +527,7 @@ public class MappingSession {
      * @return Entity instance
      */
     public <T> T getFromRow(Class<T> clazz, Row row) {
-        return MappingBuilder.getFromRow(clazz, row);
+        return track(MappingBuilder.getFromRow(clazz, row));
     }
     
     /**
@@ -197,7 +539,7 @@ public class MappingSession {
      * @return List<Entity>
      */
     public <T> List<T> getFromRows(Class<T> clazz, Collection<Row> rows) {
-        return MappingBuilder.getFromRows(clazz, rows);
+        return trackAll(MappingBuilder.getFromRows(clazz, rows));
     }
     
     /**
@@ -208,7 +550,11 @@ public class MappingSession {
     public <E> void delete(E entity) {
         maybeSync(entity.getClass());
         BuiltStatement bs = MappingBuilder.buildDelete(entity, keyspace);
-        execute(bs);
+        try {
+            execute(bs);
+        } finally {
+            evict(entity.getClass(), idOf(entity));
+        }
     }
 
     /**
@@ -220,7 +566,11 @@ public class MappingSession {
     public <T> void delete(Class<T> clazz, Object id) {
         maybeSync(clazz);
         BuiltStatement bs = MappingBuilder.buildDelete(clazz, id, keyspace);
-        execute(bs);
+        try {
+            execute(bs);
+        } finally {
+            evict(clazz, id);
+        }
     }
 
     /**
@@ -232,7 +582,7 @@ public class MappingSession {
     public <E> ResultSetFuture deleteAsync(E entity) {
         maybeSync(entity.getClass());
         BuiltStatement bs = MappingBuilder.buildDelete(entity, keyspace);
-        return executeAsync(bs);
+        return evictOnCompletion(executeAsync(bs), entity.getClass(), idOf(entity));
     }
 
     /**
@@ -244,7 +594,7 @@ public class MappingSession {
     public <T> ResultSetFuture deleteAsync(Class<T> clazz, Object id) {
         maybeSync(clazz);
         BuiltStatement bs = MappingBuilder.buildDelete(clazz, id, keyspace);
-        return executeAsync(bs);
+        return evictOnCompletion(executeAsync(bs), clazz, id);
     }
 
     /**
@@ -261,7 +611,8 @@ public class MappingSession {
     /**
      * Save Entity. If Entity has @Version field, in attempt to save not the
      * latest version the entity will not be saved and no Exceptions will be
-     * thrown.
+     * thrown. The entity is sent even if tracked and unchanged, use
+     * saveAllAsync() to skip unchanged entities.
      * 
      * @param entity
      * @return ResultSetFuture.
@@ -272,7 +623,8 @@ public class MappingSession {
 
     /**
      * Save Entity. If Entity has @Version field, in attempt to save not the
-     * latest version null is returned.
+     * latest version null is returned. An unchanged tracked entity is not
+     * sent and is returned as is.
      * 
      * @param entity
      * @param options WriteOptions
@@ -280,13 +632,26 @@ public class MappingSession {
      */
     public <E> E save(E entity, WriteOptions options) {
         maybeSync(entity.getClass());
-        Statement stmt = MappingBuilder.prepareSave(entity, options, keyspace);
-        ResultSet rs = session.execute(stmt);
+        BoundStatement bs = MappingBuilder.prepareSave(entity, options, keyspace, session, tracker);
+        if (bs == null) {
+            // tracked entity is unchanged
+            return entity;
+        }
+        ResultSet rs;
+        try {
+            rs = session.execute(bs);
+        } catch (RuntimeException e) {
+            untrack(entity);
+            throw e;
+        } finally {
+            evict(entity.getClass(), idOf(entity));
+        }
 
         EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(entity.getClass());
         if (entityMetadata.hasVersion()) {
             Row row = rs.one();
             if (!(row != null && rs.wasApplied())) {
+                untrack(entity);
                 return null;
             }
         }
@@ -296,16 +661,177 @@ public class MappingSession {
     /**
      * Asynchronously Save Entity. If Entity has @Version field, in attempt to
      * save not the latest version the entity will not be saved and no
-     * Exceptions will be thrown.
+     * Exceptions will be thrown. The entity is sent even if tracked and
+     * unchanged, use saveAllAsync() to skip unchanged entities, their
+     * WriteResult has no statement.
      * 
      * @param entity
      * @param options WriteOptions
      * @return ResultSetFuture.
      */
-    public <E> ResultSetFuture saveAsync(E entity, WriteOptions options) {
+    public <E> ResultSetFuture saveAsync(final E entity, WriteOptions options) {
         maybeSync(entity.getClass());
-        Statement stmt = MappingBuilder.prepareSave(entity, options, keyspace);
-        return executeAsync(stmt);
+        BoundStatement bs = MappingBuilder.prepareSave(entity, options, keyspace, session, tracker);
+        if (bs == null) {
+            // tracked entity is unchanged, write all columns as untracked
+            bs = MappingBuilder.prepareSave(entity, options, keyspace, session);
+        }
+        ResultSetFuture future = executeAsync(bs);
+        if (tracker != null) {
+            Futures.addCallback(future, new FutureCallback<ResultSet>() {
+                @Override
+                public void onSuccess(ResultSet rs) {
+                    if (!rs.wasApplied()) {
+                        untrack(entity);
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    untrack(entity);
+                }
+            });
+        }
+        return evictOnCompletion(future, entity.getClass(), idOf(entity));
+    }
+
+    /**
+     * Save Entities. Writes are pipelined with at most
+     * WriteOptions.getMaxInFlight() concurrent requests, a failed write does
+     * not stop the others.
+     * 
+     * @param entities
+     * @return WriteResult per entity in the order of entities
+     */
+    public <E> List<WriteResult<E>> saveAll(Collection<E> entities) {
+        return saveAll(entities, null);
+    }
+
+    /**
+     * Save Entities. Writes are pipelined with at most
+     * WriteOptions.getMaxInFlight() concurrent requests, a failed write does
+     * not stop the others. Entities with @Version which are not the latest
+     * version are reported as not applied. Unchanged tracked entities are
+     * not sent, their WriteResult has no statement.
+     * 
+     * @param entities
+     * @param options WriteOptions
+     * @return WriteResult per entity in the order of entities
+     */
+    public <E> List<WriteResult<E>> saveAll(Collection<E> entities, WriteOptions options) {
+        return getUninterruptibly(saveAllAsync(entities, options));
+    }
+
+    /**
+     * Asynchronously save Entities, see saveAll().
+     * 
+     * @param entities
+     * @return ListenableFuture of WriteResult per entity, the future does not fail
+     */
+    public <E> ListenableFuture<List<WriteResult<E>>> saveAllAsync(Collection<E> entities) {
+        return saveAllAsync(entities, null);
+    }
+
+    /**
+     * Asynchronously save Entities, see saveAll().
+     * 
+     * @param entities
+     * @param options WriteOptions
+     * @return ListenableFuture of WriteResult per entity, the future does not fail
+     */
+    public <E> ListenableFuture<List<WriteResult<E>>> saveAllAsync(Collection<E> entities, WriteOptions options) {
+        List<WriteResult<E>> results = new ArrayList<WriteResult<E>>(entities.size());
+        for (E entity : entities) {
+            try {
+                maybeSync(entity.getClass());
+                results.add(new WriteResult<E>(entity, (Statement) MappingBuilder.prepareSave(entity, options, keyspace, session, tracker)));
+            } catch (RuntimeException e) {
+                results.add(new WriteResult<E>(entity, e));
+            }
+        }
+        return executeAll(results, options);
+    }
+
+    /**
+     * Delete Entities. Deletes are pipelined with at most
+     * WriteOptions.getMaxInFlight() concurrent requests.
+     * 
+     * @param entities
+     * @return WriteResult per entity in the order of entities
+     */
+    public <E> List<WriteResult<E>> deleteAll(Collection<E> entities) {
+        return deleteAll(entities, null);
+    }
+
+    /**
+     * Delete Entities. Deletes are pipelined with at most
+     * WriteOptions.getMaxInFlight() concurrent requests, consistency level
+     * and retry policy of the options apply to each delete.
+     * 
+     * @param entities
+     * @param options WriteOptions
+     * @return WriteResult per entity in the order of entities
+     */
+    public <E> List<WriteResult<E>> deleteAll(Collection<E> entities, WriteOptions options) {
+        return getUninterruptibly(deleteAllAsync(entities, options));
+    }
+
+    /**
+     * Asynchronously delete Entities, see deleteAll().
+     * 
+     * @param entities
+     * @return ListenableFuture of WriteResult per entity, the future does not fail
+     */
+    public <E> ListenableFuture<List<WriteResult<E>>> deleteAllAsync(Collection<E> entities) {
+        return deleteAllAsync(entities, null);
+    }
+
+    /**
+     * Asynchronously delete Entities, see deleteAll().
+     * 
+     * @param entities
+     * @param options WriteOptions
+     * @return ListenableFuture of WriteResult per entity, the future does not fail
+     */
+    public <E> ListenableFuture<List<WriteResult<E>>> deleteAllAsync(Collection<E> entities, WriteOptions options) {
+        List<WriteResult<E>> results = new ArrayList<WriteResult<E>>(entities.size());
+        for (E entity : entities) {
+            try {
+                maybeSync(entity.getClass());
+                BoundStatement bs = MappingBuilder.prepareDelete(entity.getClass(), idOf(entity), keyspace, session);
+                MappingBuilder.applyOptions(options, bs);
+                results.add(new WriteResult<E>(entity, bs));
+            } catch (RuntimeException e) {
+                results.add(new WriteResult<E>(entity, e));
+            }
+        }
+        return executeAll(results, options);
+    }
+
+    /** send the prepared writes, results which already failed are skipped */
+    private <E> ListenableFuture<List<WriteResult<E>>> executeAll(final List<WriteResult<E>> results, WriteOptions options) {
+        List<BatchResult> pending = new ArrayList<BatchResult>(results.size());
+        for (WriteResult<E> result : results) {
+            if (result.getStatement() != null) {
+                pending.add(result);
+                evict(result.getEntity().getClass(), idOf(result.getEntity()));
+            }
+        }
+        int maxInFlight = options == null ? new WriteOptions().getMaxInFlight() : options.getMaxInFlight();
+        return Futures.transform(new BatchRunner(session, pending).execute(maxInFlight), new Function<List<BatchResult>, List<WriteResult<E>>>() {
+            @Override
+            public List<WriteResult<E>> apply(List<BatchResult> done) {
+                for (WriteResult<E> result : results) {
+                    if (result.getStatement() != null) {
+                        evict(result.getEntity().getClass(), idOf(result.getEntity()));
+                        if (!result.isApplied()) {
+                            untrack(result.getEntity());
+                        }
+                    }
+                }
+                return results;
+            }
+        });
     }
 
     /**
@@ -319,7 +845,11 @@ public class MappingSession {
     public void remove(Object id, Class<?> clazz, String propertyName, Object item) {
         maybeSync(clazz);
         BoundStatement bs = MappingBuilder.prepareRemoveItemsFromSetOrList(id, clazz, propertyName, item, keyspace, session);
-        execute(bs);
+        try {
+            execute(bs);
+        } finally {
+            evict(clazz, id);
+        }
     }
 
     /**
@@ -334,7 +864,7 @@ public class MappingSession {
     public ResultSetFuture removeAsync(Object id, Class<?> clazz, String propertyName, Object item) {
         maybeSync(clazz);
         BoundStatement bs = MappingBuilder.prepareRemoveItemsFromSetOrList(id, clazz, propertyName, item, keyspace, session);
-        return executeAsync(bs);
+        return evictOnCompletion(executeAsync(bs), clazz, id);
     }
 
     /**
@@ -347,7 +877,11 @@ public class MappingSession {
     public void deleteValue(Object id, Class<?> clazz, String propertyName) {
         maybeSync(clazz);
         BoundStatement bs = MappingBuilder.prepareDelete(id, clazz, propertyName, keyspace, session);
-        execute(bs);
+        try {
+            execute(bs);
+        } finally {
+            evict(clazz, id);
+        }
     }
 
     /**
@@ -361,7 +895,7 @@ public class MappingSession {
     public ResultSetFuture deleteValueAsync(Object id, Class<?> clazz, String propertyName) {
         maybeSync(clazz);
         BoundStatement bs = MappingBuilder.prepareDelete(id, clazz, propertyName, keyspace, session);
-        return executeAsync(bs);
+        return evictOnCompletion(executeAsync(bs), clazz, id);
     }
 
     /**
@@ -388,7 +922,11 @@ public class MappingSession {
     public void append(Object id, Class<?> clazz, String propertyName, Object item, WriteOptions options) {
         maybeSync(clazz);
         BoundStatement bs = MappingBuilder.prepareAppendItemToCollection(id, clazz, propertyName, item, options, keyspace, session);
-        execute(bs);
+        try {
+            execute(bs);
+        } finally {
+            evict(clazz, id);
+        }
     }
 
     /**
@@ -417,7 +955,7 @@ public class MappingSession {
     public ResultSetFuture appendAsync(Object id, Class<?> clazz, String propertyName, Object item, WriteOptions options) {
         maybeSync(clazz);
         BoundStatement bs = MappingBuilder.prepareAppendItemToCollection(id, clazz, propertyName, item, options, keyspace, session);
-        return executeAsync(bs);
+        return evictOnCompletion(executeAsync(bs), clazz, id);
     }
 
     /**
@@ -455,7 +993,11 @@ public class MappingSession {
     public void updateValues(Object id, Class<?> clazz, String[] propertyNames, Object[] values, WriteOptions options) {
         maybeSync(clazz);
         BoundStatement bs = MappingBuilder.prepareUpdateValues(id, clazz, propertyNames, values, options, keyspace, session);
-        execute(bs);
+        try {
+            execute(bs);
+        } finally {
+            evict(clazz, id);
+        }
     }
     
     /**
@@ -483,7 +1025,11 @@ public class MappingSession {
     public void updateValue(Object id, Class<?> clazz, String propertyName, Object value, WriteOptions options) {
         maybeSync(clazz);
         BoundStatement bs = MappingBuilder.prepareUpdateValue(id, clazz, propertyName, value, options, keyspace, session);
-        execute(bs);
+        try {
+            execute(bs);
+        } finally {
+            evict(clazz, id);
+        }
     }
 
     /**
@@ -499,7 +1045,7 @@ public class MappingSession {
     public ResultSetFuture updateValueAsync(Object id, Class<?> clazz, String propertyName, Object value, WriteOptions options) {
         maybeSync(clazz);
         BoundStatement bs = MappingBuilder.prepareUpdateValue(id, clazz, propertyName, value, options, keyspace, session);
-        return executeAsync(bs);
+        return evictOnCompletion(executeAsync(bs), clazz, id);
     }
 
     /**
@@ -525,7 +1071,7 @@ public class MappingSession {
     public ResultSetFuture updateValuesAsync(Object id, Class<?> clazz, String[] propertyNames, Object[] values, WriteOptions options) {
         maybeSync(clazz);
         BoundStatement bs = MappingBuilder.prepareUpdateValues(id, clazz, propertyNames, values, options, keyspace, session);
-        return executeAsync(bs);
+        return evictOnCompletion(executeAsync(bs), clazz, id);
     }
     
     /**
@@ -565,7 +1111,11 @@ public class MappingSession {
     public void prepend(Object id, Class<?> clazz, String propertyName, Object item, WriteOptions options) {
         maybeSync(clazz);
         BoundStatement bs = MappingBuilder.preparePrependItemToList(id, clazz, propertyName, item, options, keyspace, session);
-        execute(bs);
+        try {
+            execute(bs);
+        } finally {
+            evict(clazz, id);
+        }
     }
 
     /**
@@ -581,7 +1131,7 @@ public class MappingSession {
     public ResultSetFuture prependAsync(Object id, Class<?> clazz, String propertyName, Object item, WriteOptions options) {
         maybeSync(clazz);
         BoundStatement bs = MappingBuilder.preparePrependItemToList(id, clazz, propertyName, item, options, keyspace, session);
-        return executeAsync(bs);
+        return evictOnCompletion(executeAsync(bs), clazz, id);
     }
 
     /**
@@ -624,7 +1174,11 @@ public class MappingSession {
     public void replaceAt(Object id, Class<?> clazz, String propertyName, Object item, int idx, WriteOptions options) {
         maybeSync(clazz);
         BoundStatement bs = MappingBuilder.prepareReplaceAt(id, clazz, propertyName, item, idx, options, keyspace, session);
-        execute(bs);
+        try {
+            execute(bs);
+        } finally {
+            evict(clazz, id);
+        }
     }
 
     /**
@@ -641,26 +1195,122 @@ public class MappingSession {
     public ResultSetFuture replaceAtAsync(Object id, Class<?> clazz, String propertyName, Object item, int idx, WriteOptions options) {
         maybeSync(clazz);
         BoundStatement bs = MappingBuilder.prepareReplaceAt(id, clazz, propertyName, item, idx, options, keyspace, session);
-        return executeAsync(bs);
+        return evictOnCompletion(executeAsync(bs), clazz, id);
+    }
+
+    /**
+     * Add the delta to a counter column, a negative delta decrements it.
+     * 
+     * @param id Primary Key
+     * @param class Entity.class
+     * @param propertyName counter property of Entity
+     * @param delta value to add
+     */
+    public void increment(Object id, Class<?> clazz, String propertyName, long delta) {
+        increment(id, clazz, propertyName, delta, null);
+    }
+
+    /**
+     * Add the delta to a counter column. Counters accept neither ttl nor
+     * timestamp, only consistency level and retry policy of the options apply.
+     * 
+     * @param id Primary Key
+     * @param class Entity.class
+     * @param propertyName counter property of Entity
+     * @param delta value to add
+     * @param options WriteOptions
+     */
+    public void increment(Object id, Class<?> clazz, String propertyName, long delta, WriteOptions options) {
+        maybeSync(clazz);
+        BoundStatement bs = MappingBuilder.prepareIncrement(id, clazz, propertyName, delta, options, keyspace, session);
+        try {
+            execute(bs);
+        } finally {
+            evict(clazz, id);
+        }
+    }
+
+    /**
+     * Asynchronously add the delta to a counter column.
+     * 
+     * @param id Primary Key
+     * @param class Entity.class
+     * @param propertyName counter property of Entity
+     * @param delta value to add
+     * @return ResultSetFuture.
+     */
+    public ResultSetFuture incrementAsync(Object id, Class<?> clazz, String propertyName, long delta) {
+        return incrementAsync(id, clazz, propertyName, delta, null);
+    }
+
+    /**
+     * Asynchronously add the delta to a counter column.
+     * 
+     * @param id Primary Key
+     * @param class Entity.class
+     * @param propertyName counter property of Entity
+     * @param delta value to add
+     * @param options WriteOptions
+     * @return ResultSetFuture.
+     */
+    public ResultSetFuture incrementAsync(Object id, Class<?> clazz, String propertyName, long delta, WriteOptions options) {
+        maybeSync(clazz);
+        BoundStatement bs = MappingBuilder.prepareIncrement(id, clazz, propertyName, delta, options, keyspace, session);
+        return evictOnCompletion(executeAsync(bs), clazz, id);
+    }
+
+    /**
+     * Create an accumulator which sums counter deltas locally and writes
+     * them periodically as counter batches, see CounterAccumulator. The
+     * accumulator must be closed explicitly.
+     * 
+     * @param options CounterOptions
+     * @return CounterAccumulator
+     */
+    public CounterAccumulator newCounterAccumulator(CounterOptions options) {
+        return new CounterAccumulator(this, options);
     }
 
     public BatchExecutor withBatch() {
         return new BatchExecutor(this);
     }
 
-    /** This Class is wrapper for batch operations. */
+    /**
+     * This Class is wrapper for batch operations. Entities are bound to the
+     * cached prepared statements and sent as a BatchStatement.
+     */
     public static class BatchExecutor {
-        List<RegularStatement> statements = new ArrayList<RegularStatement>();
+        List<BoundStatement>   statements = new ArrayList<BoundStatement>();
+        List<List<Object>>     partitions = new ArrayList<List<Object>>();
+        List<Object[]>         cached     = new ArrayList<Object[]>();
+        List<Object>           saved      = new ArrayList<Object>();
         MappingSession         m;
-        Batch                  b;
+        BatchOptions           options;
 
         public BatchExecutor(MappingSession m) {
             this.m = m;
-            b = QueryBuilder.batch(new RegularStatement[0]);
         }
 
         public <E> BatchExecutor delete(E entity) {
-            b.add(MappingBuilder.buildDelete(entity, m.keyspace));
+            m.maybeSync(entity.getClass());
+            add(MappingBuilder.prepareDelete(entity.getClass(), idOf(entity), m.keyspace, m.session), entity);
+            return this;
+        }
+
+        /**
+         * Add the delta to a counter column. Counter updates can only be
+         * batched with each other, see BatchOptions.setType(COUNTER).
+         */
+        public BatchExecutor increment(Object id, Class<?> clazz, String propertyName, long delta) {
+            return add(MappingBuilder.prepareIncrement(id, clazz, propertyName, delta, null, m.keyspace, m.session), clazz, id);
+        }
+
+        BatchExecutor add(BoundStatement statement, Class<?> clazz, Object id) {
+            m.maybeSync(clazz);
+            EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+            statements.add(statement);
+            partitions.add(partitionOf(entityMetadata, entityMetadata.getIdValues(id)));
+            track(clazz, id);
             return this;
         }
 
@@ -671,39 +1321,285 @@ public class MappingSession {
 
         public <E> BatchExecutor save(E entity, WriteOptions options) {
             m.maybeSync(entity.getClass());
-            b.add(MappingBuilder.prepareSave(entity, options, m.keyspace));
+            BoundStatement bs = MappingBuilder.prepareSave(entity, options, m.keyspace, m.session, m.tracker);
+            if (bs != null) {
+                add(bs, entity);
+                if (m.tracker != null) {
+                    saved.add(entity);
+                }
+            }
             return this;
         }
 
+        private void add(BoundStatement statement, Object entity) {
+            EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(entity.getClass());
+            statements.add(statement);
+            partitions.add(partitionOf(entityMetadata, entityMetadata.getEntityPKValues(entity)));
+            track(entity.getClass(), idOf(entity));
+        }
+
         /**
-         * Apply Options to the whole batch statement.
+         * table and partition key values of the primary key values, null if
+         * not known before the write, e.g. generated keys.
+         */
+        private static List<Object> partitionOf(EntityTypeMetadata entityMetadata, List<Object> values) {
+            List<Object> partition = new ArrayList<Object>(values.subList(0, entityMetadata.getPartitionKeyColumns().size()));
+            if (partition.contains(null)) {
+                return null;
+            }
+            partition.add(0, entityMetadata.getTableName());
+            return partition;
+        }
+
+        /** remember the cached entities to evict them after the batch */
+        private void track(Class<?> clazz, Object id) {
+            if (m.cacheFor(clazz) != null) {
+                cached.add(new Object[] { clazz, id });
+            }
+        }
+
+        private void evictAll() {
+            for (Object[] entry : cached) {
+                m.evict((Class<?>) entry[0], entry[1]);
+            }
+        }
+
+        /** the snapshots of the saved entities are stale if the batch failed */
+        private void untrackAll() {
+            for (Object entity : saved) {
+                m.untrack(entity);
+            }
+        }
+
+        /** evict the cached entities now and when the future completes */
+        private <F extends ListenableFuture<?>> F evictOnCompletion(F future) {
+            evictAll();
+            if (!cached.isEmpty()) {
+                future.addListener(new Runnable() {
+                    @Override
+                    public void run() {
+                        evictAll();
+                    }
+                }, MoreExecutors.sameThreadExecutor());
+            }
+            return future;
+        }
+
+        /**
+         * Apply Options to the whole batch statement. With
+         * BatchOptions.setGroupByPartition(true) the statements are sent as
+         * one unlogged batch per partition, see executeAllAsync().
          * 
          * @param options
          */
         public void withOptions(BatchOptions options) {
+            this.options = options;
+        }
+
+        private <S extends Statement> S apply(S statement) {
             if (options != null) {
                 if (options.getConsistencyLevel() != null) {
-                    b.setConsistencyLevel(options.getConsistencyLevel());
+                    statement.setConsistencyLevel(options.getConsistencyLevel());
                 }
 
                 if (options.getRetryPolicy() != null) {
-                    b.setRetryPolicy(options.getRetryPolicy());
+                    statement.setRetryPolicy(options.getRetryPolicy());
+                }
+
+                if (options.getDefaultTimestamp() != null) {
+                    statement.setDefaultTimestamp(options.getDefaultTimestamp());
                 }
             }
+            return statement;
+        }
+
+        /**
+         * BatchOptions.getType() if set, otherwise unlogged when grouped by
+         * partition and logged if not.
+         */
+        private BatchStatement newBatch() {
+            BatchStatement.Type type = options == null ? null : options.getType();
+            if (type == null) {
+                type = isGroupByPartition() ? BatchStatement.Type.UNLOGGED : BatchStatement.Type.LOGGED;
+            }
+            return new BatchStatement(type);
+        }
+
+        private boolean isGroupByPartition() {
+            return options != null && options.isGroupByPartition();
+        }
+
+        /** true if the statements are grouped or split into sub-batches */
+        private boolean isSplit() {
+            return isGroupByPartition() || (options != null && (options.getMaxStatements() > 0 || options.getMaxSize() > 0));
         }
 
         /** execute batch statement */
         public void execute() {
-            m.session.execute(b);
+            if (isSplit()) {
+                getUninterruptibly(executeAllAsync());
+                return;
+            }
+            if (statements.isEmpty()) {
+                return;
+            }
+            try {
+                m.session.execute(apply(newBatch().addAll(statements)));
+            } catch (RuntimeException e) {
+                untrackAll();
+                throw e;
+            } finally {
+                evictAll();
+            }
         }
 
         /**
          * Asynchronously execute batch statement
          * 
-         * @return ResultSetFuture
+         * @return ListenableFuture of the ResultSet, completed with null if
+         *         the batch is empty and nothing was sent
+         * @throws IllegalStateException if the batch is grouped by partition
+         *         or split, use executeAllAsync() instead.
+         */
+        public ListenableFuture<ResultSet> executeAsync() {
+            if (isSplit()) {
+                throw new IllegalStateException("Batch grouped by partition or split is executed with executeAllAsync()");
+            }
+            if (statements.isEmpty()) {
+                return Futures.immediateFuture(null);
+            }
+            ResultSetFuture future = m.session.executeAsync(apply(newBatch().addAll(statements)));
+            if (!saved.isEmpty()) {
+                Futures.addCallback(future, new FutureCallback<ResultSet>() {
+                    @Override
+                    public void onSuccess(ResultSet rs) {
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        untrackAll();
+                    }
+                });
+            }
+            return evictOnCompletion(future);
+        }
+
+        /**
+         * Asynchronously execute the batch. When grouped by partition or split
+         * by BatchOptions limits the sub-batches are sent concurrently, the
+         * future fails with the first failure.
+         * 
+         * @return ListenableFuture of the ResultSets of the sent statements
+         */
+        public ListenableFuture<List<ResultSet>> executeAllAsync() {
+            return Futures.transform(executeWithReportAsync(), new AsyncFunction<List<BatchResult>, List<ResultSet>>() {
+                @Override
+                public ListenableFuture<List<ResultSet>> apply(List<BatchResult> results) {
+                    List<ResultSet> resultSets = new ArrayList<ResultSet>(results.size());
+                    for (BatchResult result : results) {
+                        if (!result.isSuccess()) {
+                            return Futures.immediateFailedFuture(result.getError());
+                        }
+                        resultSets.add(result.getResultSet());
+                    }
+                    return Futures.immediateFuture(resultSets);
+                }
+            });
+        }
+
+        /**
+         * Asynchronously execute the batch and report the outcome of each
+         * statement or sub-batch sent. At most BatchOptions.getMaxInFlight()
+         * sub-batches are sent concurrently. The future does not fail, a
+         * failed sub-batch does not stop the others. Atomicity of a logged
+         * batch holds within each sub-batch only.
+         * 
+         * @return ListenableFuture of BatchResult per sent statement
+         */
+        public ListenableFuture<List<BatchResult>> executeWithReportAsync() {
+            List<BatchResult> batches;
+            if (isSplit()) {
+                batches = split();
+            } else {
+                batches = new ArrayList<BatchResult>(1);
+                if (!statements.isEmpty()) {
+                    batches.add(new BatchResult(apply(newBatch().addAll(statements)), statements.size(), 0));
+                }
+            }
+            int maxInFlight = options == null ? new BatchOptions().getMaxInFlight() : options.getMaxInFlight();
+            ListenableFuture<List<BatchResult>> future = new BatchRunner(m.session, batches).execute(maxInFlight);
+            if (!saved.isEmpty()) {
+                future = Futures.transform(future, new Function<List<BatchResult>, List<BatchResult>>() {
+                    @Override
+                    public List<BatchResult> apply(List<BatchResult> results) {
+                        for (BatchResult result : results) {
+                            if (!result.isSuccess()) {
+                                untrackAll();
+                                break;
+                            }
+                        }
+                        return results;
+                    }
+                });
+            }
+            return evictOnCompletion(future);
+        }
+
+        /**
+         * statements grouped by partition if requested and split by the
+         * limits of BatchOptions, single statements are sent as is.
          */
-        public ResultSetFuture executeAsync() {
-            return m.session.executeAsync(b);
+        private List<BatchResult> split() {
+            List<List<BoundStatement>> groups = new ArrayList<List<BoundStatement>>();
+            if (isGroupByPartition()) {
+                Map<List<Object>, List<BoundStatement>> byPartition = new LinkedHashMap<List<Object>, List<BoundStatement>>();
+                for (int i = 0; i < statements.size(); i++) {
+                    List<Object> partition = partitions.get(i);
+                    if (partition == null) {
+                        groups.add(Collections.singletonList(statements.get(i)));
+                        continue;
+                    }
+                    List<BoundStatement> group = byPartition.get(partition);
+                    if (group == null) {
+                        group = new ArrayList<BoundStatement>();
+                        byPartition.put(partition, group);
+                    }
+                    group.add(statements.get(i));
+                }
+                groups.addAll(byPartition.values());
+            } else {
+                groups.add(statements);
+            }
+
+            int maxStatements = options.getMaxStatements() > 0 ? options.getMaxStatements() : Integer.MAX_VALUE;
+            long maxSize = options.getMaxSize() > 0 ? options.getMaxSize() : Long.MAX_VALUE;
+            List<BatchResult> result = new ArrayList<BatchResult>();
+            for (List<BoundStatement> group : groups) {
+                List<BoundStatement> chunk = new ArrayList<BoundStatement>();
+                long chunkSize = 0;
+                for (BoundStatement statement : group) {
+                    long size = MappingBuilder.estimateSize(statement);
+                    if (!chunk.isEmpty() && (chunk.size() >= maxStatements || chunkSize + size > maxSize)) {
+                        result.add(toBatch(chunk, chunkSize));
+                        chunk = new ArrayList<BoundStatement>();
+                        chunkSize = 0;
+                    }
+                    chunk.add(statement);
+                    chunkSize += size;
+                }
+                if (!chunk.isEmpty()) {
+                    result.add(toBatch(chunk, chunkSize));
+                }
+            }
+            return result;
+        }
+
+        /** single statement as is, otherwise a batch of the type from newBatch() */
+        private BatchResult toBatch(List<BoundStatement> chunk, long size) {
+            if (chunk.size() == 1) {
+                return new BatchResult(apply(chunk.get(0)), 1, size);
+            }
+            return new BatchResult(apply(newBatch().addAll(chunk)), chunk.size(), size);
         }
     }
 
@@ -744,6 +1640,18 @@ public class MappingSession {
         MappingBuilder.setStatementCache(statementCache);
     }
 
+    /**
+     * Enable compiled per entity row mappers. Mapper is built once for each
+     * entity on the first read and replaces reflective mapping of rows.
+     * Disabled by default.
+     * 
+     * @param useRowMappers
+     */
+    public static void setUseRowMappers(boolean useRowMappers) {
+        MappingBuilder.setUseRowMappers(useRowMappers);
+    }
+
+
     protected void execute(BoundStatement bs) {
         if (bs != null) {
             session.execute(bs);
@@ -770,6 +1678,16 @@ public class MappingSession {
         return null;
     }
 
+    /** wait for the future, exceptions of the failed future are rethrown */
+    protected static <V> V getUninterruptibly(ListenableFuture<V> future) {
+        try {
+            return Uninterruptibles.getUninterruptibly(future);
+        } catch (ExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
     /** run sync if not yet done */
     protected void maybeSync(Class<?> clazz) {
         if (syncOptions.isDoNotSync(clazz))
@@ -781,6 +1699,229 @@ public class MappingSession {
         }
     }
 
+    /**
+     * entity cache for a read, null if the options set a consistency level
+     * as the cached entity may have been read with a weaker one.
+     */
+    protected EntityCache cacheFor(Class<?> clazz, ReadOptions options) {
+        if (options != null && options.getConsistencyLevel() != null) {
+            return null;
+        }
+        return cacheFor(clazz);
+    }
+
+    /** entity cache if entities of the class are cached, otherwise null */
+    protected EntityCache cacheFor(Class<?> clazz) {
+        EntityCache cache = entityCache;
+        if (cache != null && EntityCache.isCacheable(clazz)) {
+            return cache;
+        }
+        return null;
+    }
+
+    /** drop the cached entity once the write is done or failed */
+    protected void evict(Class<?> clazz, Object id) {
+        EntityCache cache = cacheFor(clazz);
+        if (cache != null) {
+            cache.invalidate(clazz, id);
+        }
+    }
+
+    /**
+     * drop the cached entity now, so it is not read while the write is in
+     * progress, and again when the write completes.
+     */
+    protected ResultSetFuture evictOnCompletion(ResultSetFuture future, final Class<?> clazz, final Object id) {
+        if (cacheFor(clazz) == null) {
+            return future;
+        }
+        evict(clazz, id);
+        if (future != null) {
+            future.addListener(new Runnable() {
+                @Override
+                public void run() {
+                    evict(clazz, id);
+                }
+            }, MoreExecutors.sameThreadExecutor());
+        }
+        return future;
+    }
+
+    private static Object idOf(Object entity) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(entity.getClass());
+        return entityMetadata.getPrimaryKeyMetadata().getOwnField().getValue(entity);
+    }
+
+    /**
+     * Executor the results of asynchronous reads are mapped on. Unless set,
+     * a shared pool of daemon threads is used, so mapping never runs on the
+     * driver I/O threads.
+     */
+    public Executor getExecutor() {
+        return executor != null ? executor : DefaultExecutor.INSTANCE;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public boolean isTrackChanges() {
+        return tracker != null;
+    }
+
+    /**
+     * Keep a snapshot of the entities read by this session, so that their
+     * save writes only the changed columns, or nothing if the entity is
+     * unchanged. Snapshots are weakly referenced by entity identity, other
+     * sessions save the entity with all columns. Disabled by default.
+     * 
+     * @param trackChanges true to enable, false drops the snapshots
+     */
+    public void setTrackChanges(boolean trackChanges) {
+        this.tracker = trackChanges ? new EntityTracker() : null;
+    }
+
+    /** snapshot of the entity read, if the session tracks changes */
+    private <T> T track(T entity) {
+        EntityTracker t = tracker;
+        if (t != null) {
+            t.track(entity);
+        }
+        return entity;
+    }
+
+    private <T> List<T> trackAll(List<T> entities) {
+        EntityTracker t = tracker;
+        if (t != null) {
+            for (T entity : entities) {
+                t.track(entity);
+            }
+        }
+        return entities;
+    }
+
+    private <T> Iterator<T> track(Iterator<T> entities) {
+        if (tracker == null) {
+            return entities;
+        }
+        return Iterators.transform(entities, new Function<T, T>() {
+            @Override
+            public T apply(T entity) {
+                return track(entity);
+            }
+        });
+    }
+
+    private <T> EntityHandler<T> track(final EntityHandler<T> handler) {
+        if (tracker == null) {
+            return handler;
+        }
+        return new EntityHandler<T>() {
+            @Override
+            public void handle(T entity) {
+                handler.handle(track(entity));
+            }
+        };
+    }
+
+    private <T> ListenableFuture<T> trackOnCompletion(ListenableFuture<T> future) {
+        if (tracker == null) {
+            return future;
+        }
+        return Futures.transform(future, new Function<T, T>() {
+            @Override
+            public T apply(T entity) {
+                return track(entity);
+            }
+        });
+    }
+
+    private <T> ListenableFuture<List<T>> trackAllOnCompletion(ListenableFuture<List<T>> future) {
+        if (tracker == null) {
+            return future;
+        }
+        return Futures.transform(future, new Function<List<T>, List<T>>() {
+            @Override
+            public List<T> apply(List<T> entities) {
+                return trackAll(entities);
+            }
+        });
+    }
+
+    private <T> ListenableFuture<Map<Object, T>> trackValuesOnCompletion(ListenableFuture<Map<Object, T>> future) {
+        if (tracker == null) {
+            return future;
+        }
+        return Futures.transform(future, new Function<Map<Object, T>, Map<Object, T>>() {
+            @Override
+            public Map<Object, T> apply(Map<Object, T> entities) {
+                trackAll(new ArrayList<T>(entities.values()));
+                return entities;
+            }
+        });
+    }
+
+    /** the next save of the entity writes all columns */
+    private void untrack(Object entity) {
+        EntityTracker t = tracker;
+        if (t != null) {
+            t.forget(entity);
+        }
+    }
+
+    public boolean isCoalesceReads() {
+        return inFlightReads != null;
+    }
+
+    /**
+     * Share one query among the concurrent get() and getAsync() calls for
+     * the same entity, primary key and consistency level. Synchronous get()
+     * then waits for the asynchronous read. Disabled by default.
+     * 
+     * @param coalesceReads true to enable
+     * @param copy true to return a copy of the entity to each caller joining
+     *        a read in flight, otherwise all callers share one instance
+     */
+    public void setCoalesceReads(boolean coalesceReads, boolean copy) {
+        this.inFlightReads = coalesceReads ? new InFlightReads(copy) : null;
+    }
+
+    /**
+     * Cache of the entities annotated with @Cacheable, null unless set.
+     */
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    /**
+     * Enable entity cache for this MappingSession. Entities annotated with
+     * javax.persistence.Cacheable are cached by get() and getAll() and
+     * evicted by the writes performed with this MappingSession. Writes made
+     * elsewhere are visible once the cached entries expire. Reads with
+     * ReadOptions.setConsistencyLevel() go to Cassandra and skip the cache.
+     * 
+     * @param entityCache null to disable
+     */
+    public void setEntityCache(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    /** shared executor created on the first asynchronous read */
+    private static class DefaultExecutor {
+        static final Executor INSTANCE = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mapping-session-%d").build());
+    }
+
+    /** shared timer of the batching windows and periodic flushes */
+    static ScheduledExecutorService getScheduler() {
+        return DefaultScheduler.INSTANCE;
+    }
+
+    private static class DefaultScheduler {
+        static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("mapping-session-timer-%d").build());
+    }
+
     public Session getSession() {
         return session;
     }
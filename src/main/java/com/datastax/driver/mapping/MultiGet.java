@@ -0,0 +1,194 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.mapping.builder.MappingBuilder;
+import com.datastax.driver.mapping.meta.EntityTypeMetadata;
+import com.datastax.driver.mapping.option.ReadOptions;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Load entities by primary keys with a bounded number of concurrent
+ * requests. When requested, ids which differ only in the last clustering
+ * column are loaded with one IN query.
+ */
+class MultiGet<T> {
+
+    private final MappingSession                  msession;
+    private final Class<T>                        clazz;
+    private final ReadOptions                     options;
+    private final EntityTypeMetadata              entityMetadata;
+
+    private final List<List<Object>>              lookups = new ArrayList<List<Object>>();
+    private final List<SettableFuture<List<T>>>   results = new ArrayList<SettableFuture<List<T>>>();
+    private final AtomicInteger                   next    = new AtomicInteger();
+    /** launches requested but not yet done, see launchNext() */
+    private final AtomicInteger                   pending = new AtomicInteger();
+
+    MultiGet(MappingSession msession, Class<T> clazz, ReadOptions options) {
+        this.msession = msession;
+        this.clazz = clazz;
+        this.options = options;
+        this.entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+    }
+
+    /**
+     * @return entities by ids in the order of ids, ids not found are absent
+     */
+    ListenableFuture<Map<Object, T>> execute(Collection<?> ids) {
+        final List<Object> keys = new ArrayList<Object>(new LinkedHashSet<Object>(ids));
+        group(keys);
+        for (int i = 0; i < lookups.size(); i++) {
+            results.add(SettableFuture.<List<T>> create());
+        }
+
+        int maxInFlight = options == null ? new ReadOptions().getMaxInFlight() : options.getMaxInFlight();
+        int workers = Math.min(Math.max(maxInFlight, 1), lookups.size());
+        for (int i = 0; i < workers; i++) {
+            launchNext();
+        }
+
+        return Futures.transform(Futures.allAsList(results), new Function<List<List<T>>, Map<Object, T>>() {
+            @Override
+            public Map<Object, T> apply(List<List<T>> loaded) {
+                Map<List<Object>, T> byPk = new HashMap<List<Object>, T>();
+                for (List<T> entities : loaded) {
+                    for (T entity : entities) {
+                        byPk.put(entityMetadata.getEntityPKValues(entity), entity);
+                    }
+                }
+                Map<Object, T> result = new LinkedHashMap<Object, T>(keys.size() * 2);
+                for (Object id : keys) {
+                    T entity = byPk.get(entityMetadata.getIdValues(id));
+                    if (entity != null) {
+                        result.put(id, entity);
+                    }
+                }
+                return result;
+            }
+        });
+    }
+
+    /** one lookup per id or per ids differing in the last clustering column */
+    private void group(List<Object> keys) {
+        int pkSize = entityMetadata.getPkColumns().size();
+        boolean canGroup = options != null && options.isGroupByPartition()
+                && pkSize > entityMetadata.getPartitionKeyColumns().size();
+        if (!canGroup) {
+            for (Object id : keys) {
+                lookups.add(Collections.singletonList(id));
+            }
+            return;
+        }
+        Map<List<Object>, List<Object>> groups = new LinkedHashMap<List<Object>, List<Object>>();
+        for (Object id : keys) {
+            List<Object> prefix = entityMetadata.getIdValues(id).subList(0, pkSize - 1);
+            List<Object> group = groups.get(prefix);
+            if (group == null) {
+                group = new ArrayList<Object>();
+                groups.put(prefix, group);
+            }
+            group.add(id);
+        }
+        lookups.addAll(groups.values());
+    }
+
+    /**
+     * start the next lookup, called again when a lookup completes. Lookups
+     * completed synchronously only count the launch, it is made by the loop
+     * of the caller already launching, so the stack does not grow with the
+     * number of ids.
+     */
+    private void launchNext() {
+        if (pending.getAndIncrement() > 0) {
+            return;
+        }
+        do {
+            launch();
+        } while (pending.decrementAndGet() > 0);
+    }
+
+    private void launch() {
+        final int idx = next.getAndIncrement();
+        if (idx >= lookups.size()) {
+            return;
+        }
+        ListenableFuture<List<T>> future;
+        try {
+            future = load(lookups.get(idx));
+        } catch (RuntimeException e) {
+            future = Futures.immediateFailedFuture(e);
+        }
+        Futures.addCallback(future, new FutureCallback<List<T>>() {
+            @Override
+            public void onSuccess(List<T> entities) {
+                results.get(idx).set(entities);
+                launchNext();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                results.get(idx).setException(t);
+                launchNext();
+            }
+        });
+    }
+
+    private ListenableFuture<List<T>> load(List<Object> ids) {
+        if (ids.size() == 1) {
+            return Futures.transform(msession.getAsync(clazz, ids.get(0), options), new Function<T, List<T>>() {
+                @Override
+                public List<T> apply(T entity) {
+                    return entity == null ? Collections.<T> emptyList() : Collections.singletonList(entity);
+                }
+            });
+        }
+
+        List<Object> prefix = null;
+        List<Object> lastValues = new ArrayList<Object>(ids.size());
+        for (Object id : ids) {
+            List<Object> values = entityMetadata.getIdValues(id);
+            prefix = values.subList(0, values.size() - 1);
+            lastValues.add(values.get(values.size() - 1));
+        }
+        ListenableFuture<BoundStatement> bs = MappingBuilder.prepareSelectInAsync(clazz, prefix, lastValues, options,
+                msession.getKeyspace(), msession.getSession());
+        ListenableFuture<ResultSet> rs = Futures.transform(bs, new AsyncFunction<BoundStatement, ResultSet>() {
+            @Override
+            public ListenableFuture<ResultSet> apply(BoundStatement bs) {
+                return msession.getSession().executeAsync(bs);
+            }
+        });
+        return MappingBuilder.getFromResultSetAsync(clazz, rs, msession.getExecutor());
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.Metadata;
+import com.datastax.driver.core.PagingState;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Token;
+import com.datastax.driver.core.TokenRange;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.datastax.driver.mapping.builder.EntityIterator;
+import com.datastax.driver.mapping.builder.MappingBuilder;
+import com.datastax.driver.mapping.option.ScanOptions;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Full scan of the entity table split by the token ranges of the ring.
+ * Sub-ranges are scanned in parallel, page by page, and a failed page is
+ * retried from its paging state so no entity is delivered twice.
+ */
+class TokenScan<T> {
+    private static final Logger            log   = Logger.getLogger(TokenScan.class.getName());
+
+    private final Class<T>                 clazz;
+    private final EntityHandler<? super T> handler;
+    private final ScanOptions              options;
+    private final String                   keyspace;
+    private final Session                  session;
+    private final AtomicLong               count = new AtomicLong();
+
+    private PreparedStatement              bounded;
+    private PreparedStatement              unbounded;
+
+    TokenScan(Class<T> clazz, EntityHandler<? super T> handler, ScanOptions options, String keyspace, Session session) {
+        this.clazz = clazz;
+        this.handler = handler;
+        this.options = options;
+        this.keyspace = keyspace;
+        this.session = session;
+    }
+
+    /**
+     * @return number of entities passed to the handler
+     */
+    long execute() {
+        bounded = MappingBuilder.prepareScan(clazz, true, keyspace, session);
+        unbounded = MappingBuilder.prepareScan(clazz, false, keyspace, session);
+
+        Metadata metadata = session.getCluster().getMetadata();
+        Token minToken = null;
+        List<TokenRange> ranges = new ArrayList<TokenRange>();
+        for (TokenRange range : metadata.getTokenRanges()) {
+            if (range.isWrappedAround()) {
+                // (start, min] is the first part of the unwrapped range
+                minToken = range.unwrap().get(0).getEnd();
+            }
+            for (TokenRange split : range.splitEvenly(Math.max(options.getSplits(), 1))) {
+                ranges.addAll(split.unwrap());
+            }
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(options.getParallelism(), 1),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("token-scan-%d").build());
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>(ranges.size());
+            for (final TokenRange range : ranges) {
+                final boolean toEnd = range.getEnd().equals(minToken);
+                futures.add(workers.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        scan(range, toEnd);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Scan of " + clazz.getName() + " is interrupted", e);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+        return count.get();
+    }
+
+    private void scan(TokenRange range, boolean toEnd) {
+        PagingState pagingState = null;
+        do {
+            BoundStatement bs = toEnd ? unbounded.bind() : bounded.bind();
+            bs.setToken(0, range.getStart());
+            if (!toEnd) {
+                bs.setToken(1, range.getEnd());
+            }
+            bs.setFetchSize(options.getFetchSize());
+            if (options.getConsistencyLevel() != null) {
+                bs.setConsistencyLevel(options.getConsistencyLevel());
+            }
+            if (pagingState != null) {
+                bs.setPagingState(pagingState);
+            }
+
+            ResultSet rs = executeWithRetries(bs, range);
+            List<T> page = new ArrayList<T>(rs.getAvailableWithoutFetching());
+            new EntityIterator<T>(clazz, rs).mapAvailable(page);
+            for (T entity : page) {
+                handler.handle(entity);
+            }
+            count.addAndGet(page.size());
+            pagingState = rs.getExecutionInfo().getPagingState();
+        } while (pagingState != null);
+    }
+
+    private ResultSet executeWithRetries(BoundStatement bs, TokenRange range) {
+        for (int attempt = 0;; attempt++) {
+            try {
+                return session.execute(bs);
+            } catch (DriverException e) {
+                if (attempt >= options.getMaxRetries()) {
+                    throw e;
+                }
+                log.warning("Retry scan of " + clazz.getName() + " range " + range + ": " + e);
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.datastax.driver.mapping.meta.EntityTypeMetadata;
+import com.datastax.driver.mapping.option.WriteBehindOptions;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Buffers saves and deletes and keeps only the latest one per primary key,
+ * overwritten states are never sent. The buffer is flushed every
+ * WriteBehindOptions.getFlushIntervalMillis(), when
+ * WriteBehindOptions.getMaxPending() entities are buffered, or by flush().
+ * Flushes run one after another, so the writes of a key reach the cluster
+ * in order. Reads do not see the buffered state. close() flushes what is
+ * left and must be called before the session is closed.
+ *
+ * <pre>
+ * WriteBehind wb = msession.newWriteBehind(new WriteBehindOptions());
+ * wb.save(entity);
+ * wb.close();
+ * </pre>
+ */
+public class WriteBehind implements Closeable {
+    private static final Logger           log      = Logger.getLogger(WriteBehind.class.getName());
+
+    private final MappingSession          msession;
+    private final WriteBehindOptions      options;
+    private final ScheduledFuture<?>      timer;
+
+    private final Object                  lock     = new Object();
+    private Map<List<Object>, Write>      buffer   = new LinkedHashMap<List<Object>, Write>();
+    private ListenableFuture<?>           last     = Futures.immediateFuture(null);
+    private SettableFuture<List<BatchResult>> queued;
+    private boolean                       closed;
+
+    WriteBehind(MappingSession msession, WriteBehindOptions options) {
+        this.msession = msession;
+        this.options = options;
+        if (options.getFlushIntervalMillis() > 0) {
+            timer = MappingSession.getScheduler().scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    if (getPending() > 0) {
+                        flush();
+                    }
+                }
+            }, options.getFlushIntervalMillis(), options.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            timer = null;
+        }
+    }
+
+    /**
+     * Buffer the save of the entity, replacing the buffered write of the
+     * same primary key. The entity is read when flushed, so later changes of
+     * the instance are written too.
+     * 
+     * @param entity
+     */
+    public void save(Object entity) {
+        put(entity, false);
+    }
+
+    /**
+     * Buffer the delete of the entity, replacing the buffered write of the
+     * same primary key.
+     * 
+     * @param entity
+     */
+    public void delete(Object entity) {
+        put(entity, true);
+    }
+
+    /**
+     * @return number of buffered writes not yet sent
+     */
+    public int getPending() {
+        synchronized (lock) {
+            return buffer.size();
+        }
+    }
+
+    private void put(Object entity, boolean delete) {
+        boolean full;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("WriteBehind is closed");
+            }
+            buffer.put(keyOf(entity), new Write(entity, delete));
+            full = buffer.size() >= options.getMaxPending();
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    /**
+     * class and primary key of the entity, a key of its own if the primary
+     * key is not known before the write, e.g. generated keys.
+     */
+    private static List<Object> keyOf(Object entity) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(entity.getClass());
+        List<Object> key = new ArrayList<Object>(entityMetadata.getEntityPKValues(entity));
+        if (key.contains(null)) {
+            return Arrays.asList(new Object());
+        }
+        key.add(0, entity.getClass());
+        return key;
+    }
+
+    /**
+     * Send the buffered writes once the previous flush is complete. The
+     * writes buffered until the flush starts are included.
+     * 
+     * @return ListenableFuture of the outcome per sent statement, fails only
+     *         if the writes could not be sent
+     */
+    public ListenableFuture<List<BatchResult>> flush() {
+        synchronized (lock) {
+            if (queued == null) {
+                final SettableFuture<List<BatchResult>> next = SettableFuture.create();
+                last.addListener(new Runnable() {
+                    @Override
+                    public void run() {
+                        start(next);
+                    }
+                }, msession.getExecutor());
+                last = next;
+                queued = next;
+            }
+            return queued;
+        }
+    }
+
+    /**
+     * Stop the periodic flush, send the buffered writes and wait for them.
+     * Further writes are rejected.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        MappingSession.getUninterruptibly(flush());
+    }
+
+    private void start(final SettableFuture<List<BatchResult>> result) {
+        Collection<Write> writes;
+        synchronized (lock) {
+            writes = buffer.values();
+            buffer = new LinkedHashMap<List<Object>, Write>();
+            queued = null;
+        }
+        ListenableFuture<List<BatchResult>> sent;
+        try {
+            sent = send(writes);
+        } catch (RuntimeException e) {
+            sent = Futures.immediateFailedFuture(e);
+        }
+        Futures.addCallback(sent, new FutureCallback<List<BatchResult>>() {
+            @Override
+            public void onSuccess(List<BatchResult> results) {
+                int failed = 0;
+                for (BatchResult r : results) {
+                    if (!r.isSuccess()) {
+                        failed++;
+                    }
+                }
+                if (failed > 0) {
+                    log.warning("WriteBehind flush: " + failed + " of " + results.size() + " statements failed");
+                }
+                result.set(results);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                log.log(Level.WARNING, "WriteBehind flush failed", t);
+                result.setException(t);
+            }
+        });
+    }
+
+    private ListenableFuture<List<BatchResult>> send(Collection<Write> writes) {
+        if (options.getBatchOptions() != null) {
+            MappingSession.BatchExecutor batch = msession.withBatch();
+            for (Write w : writes) {
+                if (w.delete) {
+                    batch.delete(w.entity);
+                } else {
+                    batch.save(w.entity, options.getWriteOptions());
+                }
+            }
+            batch.withOptions(options.getBatchOptions());
+            return batch.executeWithReportAsync();
+        }
+
+        List<Object> saves = new ArrayList<Object>();
+        List<Object> deletes = new ArrayList<Object>();
+        for (Write w : writes) {
+            (w.delete ? deletes : saves).add(w.entity);
+        }
+        List<ListenableFuture<List<WriteResult<Object>>>> futures = new ArrayList<ListenableFuture<List<WriteResult<Object>>>>(2);
+        futures.add(msession.saveAllAsync(saves, options.getWriteOptions()));
+        futures.add(msession.deleteAllAsync(deletes, options.getWriteOptions()));
+        return Futures.transform(Futures.allAsList(futures), new Function<List<List<WriteResult<Object>>>, List<BatchResult>>() {
+            @Override
+            public List<BatchResult> apply(List<List<WriteResult<Object>>> all) {
+                List<BatchResult> results = new ArrayList<BatchResult>();
+                for (List<WriteResult<Object>> part : all) {
+                    results.addAll(part);
+                }
+                return results;
+            }
+        });
+    }
+
+    private static class Write {
+        final Object  entity;
+        final boolean delete;
+
+        Write(Object entity, boolean delete) {
+            this.entity = entity;
+            this.delete = delete;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.mapping.builder.MappingBuilder;
+
+/**
+ * Outcome of the write of one entity by MappingSession.saveAll() or
+ * deleteAll().
+ */
+public class WriteResult<E> extends BatchResult {
+    private final E entity;
+
+    WriteResult(E entity, Statement statement) {
+        super(statement, 1, MappingBuilder.estimateSize(statement));
+        this.entity = entity;
+    }
+
+    WriteResult(E entity, Throwable error) {
+        super(null, 1, 0);
+        this.entity = entity;
+        setError(error);
+    }
+
+    public E getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return true if the entity is written, false if the write failed, the
+     *         entity has @Version and is not the latest version, or the
+     *         tracked entity is unchanged and nothing was sent
+     */
+    public boolean isApplied() {
+        ResultSet rs = getResultSet();
+        return isSuccess() && rs != null && rs.wasApplied();
+    }
+}
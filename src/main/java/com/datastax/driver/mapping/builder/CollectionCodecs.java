@@ -0,0 +1,150 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.builder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.core.exceptions.CodecNotFoundException;
+import com.datastax.driver.mapping.meta.EntityFieldMetaData;
+import com.google.common.reflect.TypeToken;
+
+/**
+ * Codecs decoding collection columns straight into the collection type of
+ * the field. Element codecs are resolved once per field and column type
+ * from the generic signature of the field and kept on the field metadata,
+ * and the target collection is presized with the number of elements in the
+ * column.
+ */
+final class CollectionCodecs {
+
+    private CollectionCodecs() {
+    }
+
+    /**
+     * Codec reading the collection column of the given type into the field.
+     */
+    static TypeCodec<Object> forColumn(EntityFieldMetaData field, DataType columnType) {
+        ConcurrentMap<DataType, TypeCodec<Object>> byType = field.getCodecs();
+        TypeCodec<Object> codec = byType.get(columnType);
+        if (codec == null) {
+            codec = create(field, columnType);
+            byType.putIfAbsent(columnType, codec);
+        }
+        return codec;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static TypeCodec<Object> create(EntityFieldMetaData field, DataType columnType) {
+        List<DataType> args = columnType.getTypeArguments();
+        Class<?>[] generics = field.getGenericTypes();
+        switch (columnType.getName()) {
+            case MAP:
+                return (TypeCodec) new MapCodec(elementCodec(args.get(0), generic(generics, 0)),
+                        elementCodec(args.get(1), generic(generics, 1)), field.getCollectionType());
+            case LIST:
+            case SET:
+                return (TypeCodec) new CollectionCodec((DataType.CollectionType) columnType, TypeToken.of(field.getType()),
+                        elementCodec(args.get(0), generic(generics, 0)), field.getCollectionType());
+            default:
+                throw new IllegalArgumentException("Not a collection column: " + columnType);
+        }
+    }
+
+    private static Class<?> generic(Class<?>[] generics, int i) {
+        return generics == null || generics.length <= i ? null : generics[i];
+    }
+
+    /**
+     * codec for the element class when the registry has one, otherwise the
+     * default codec of the cql type.
+     */
+    private static TypeCodec<?> elementCodec(DataType cqlType, Class<?> elementClass) {
+        CodecRegistry registry = CodecRegistry.DEFAULT_INSTANCE;
+        if (elementClass != null) {
+            try {
+                return registry.codecFor(cqlType, TypeToken.of(elementClass).wrap());
+            } catch (CodecNotFoundException e) {
+                // e.g. enums are kept as strings
+            }
+        }
+        return registry.codecFor(cqlType);
+    }
+
+    private static int capacity(int size) {
+        return size < 3 ? size + 1 : (int) (size / 0.75f + 1.0f);
+    }
+
+    private static class CollectionCodec<E> extends TypeCodec.AbstractCollectionCodec<E, Collection<E>> {
+        private final Class<?> target;
+        private final boolean  isSet;
+
+        CollectionCodec(DataType.CollectionType cqlType, TypeToken<Collection<E>> javaType, TypeCodec<E> eltCodec, Class<?> target) {
+            super(cqlType, javaType, eltCodec);
+            this.target = target;
+            this.isSet = cqlType.getName() == DataType.Name.SET;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Collection<E> newInstance(int size) {
+            if (target == null) {
+                return isSet ? new HashSet<E>(capacity(size)) : new ArrayList<E>(size);
+            }
+            if (target == ArrayList.class) {
+                return new ArrayList<E>(size);
+            }
+            if (target == HashSet.class) {
+                return new HashSet<E>(capacity(size));
+            }
+            if (target == LinkedHashSet.class) {
+                return new LinkedHashSet<E>(capacity(size));
+            }
+            return (Collection<E>) MappingBuilder.newCollection(target);
+        }
+    }
+
+    private static class MapCodec<K, V> extends TypeCodec.AbstractMapCodec<K, V> {
+        private final Class<?> target;
+
+        MapCodec(TypeCodec<K> keyCodec, TypeCodec<V> valueCodec, Class<?> target) {
+            super(keyCodec, valueCodec);
+            this.target = target;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Map<K, V> newInstance(int size) {
+            if (target == null || target == HashMap.class) {
+                return new HashMap<K, V>(capacity(size));
+            }
+            if (target == LinkedHashMap.class) {
+                return new LinkedHashMap<K, V>(capacity(size));
+            }
+            return (Map<K, V>) MappingBuilder.newCollection(target);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.builder;
+
+import java.util.Date;
+
+import com.datastax.driver.core.DataType;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.mapping.meta.EntityFieldMetaData;
+
+/**
+ * Typed reader of a single column. The reader is chosen once per field by
+ * the DataType of the field, so reading a row does not switch on the type.
+ * Readers expect a column checked by MappingBuilder.isCompatible() and
+ * return null for null columns instead of the driver's primitive defaults.
+ */
+abstract class ColumnReader {
+
+    /**
+     * @param idx position of the column in the row
+     */
+    abstract Object read(Row row, int idx);
+
+    /**
+     * Read the column and set the not null value on the target object.
+     * Readers of primitive properties override it to skip boxing.
+     */
+    void copy(Row row, int idx, EntityFieldMetaData field, Object target) {
+        Object value = read(row, idx);
+        if (value != null) {
+            field.setValue(target, value);
+        }
+    }
+
+    static ColumnReader forField(final EntityFieldMetaData field) {
+        if (MappingBuilder.isPrimitiveColumn(field)) {
+            return forPrimitive(field);
+        }
+        if (field.getDataType() == DataType.Name.TIMESTAMP && field.getType() == long.class) {
+            return new ColumnReader() {
+                Object read(Row row, int idx) {
+                    return row.isNull(idx) ? null : MappingBuilder.getTimestampMillis(row, idx);
+                }
+
+                void copy(Row row, int idx, EntityFieldMetaData field, Object target) {
+                    if (!row.isNull(idx)) {
+                        field.setLong(target, MappingBuilder.getTimestampMillis(row, idx));
+                    }
+                }
+            };
+        }
+        switch (field.getDataType()) {
+            case INET:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.getInet(idx);
+                    }
+                };
+            case ASCII:
+            case TEXT:
+            case VARCHAR:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.getString(idx);
+                    }
+                };
+            case BLOB:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.getBytes(idx);
+                    }
+                };
+            case BOOLEAN:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.isNull(idx) ? null : row.getBool(idx);
+                    }
+                };
+            case TIMESTAMP:
+                if (field.getType() == Date.class) {
+                    return new ColumnReader() {
+                        Object read(Row row, int idx) {
+                            return row.getTimestamp(idx);
+                        }
+                    };
+                }
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.isNull(idx) ? null : MappingBuilder.getTimestampMillis(row, idx);
+                    }
+                };
+            case UUID:
+            case TIMEUUID:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.getUUID(idx);
+                    }
+                };
+            case INT:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.isNull(idx) ? null : row.getInt(idx);
+                    }
+                };
+            case BIGINT:
+            case COUNTER:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.isNull(idx) ? null : row.getLong(idx);
+                    }
+                };
+            case DOUBLE:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.isNull(idx) ? null : row.getDouble(idx);
+                    }
+                };
+            case FLOAT:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.isNull(idx) ? null : row.getFloat(idx);
+                    }
+                };
+            case DECIMAL:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.getDecimal(idx);
+                    }
+                };
+            case VARINT:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.getVarint(idx);
+                    }
+                };
+            default:
+                // collections keep the generic conversion of MappingBuilder
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return MappingBuilder.getValueFromRow(row, idx, field);
+                    }
+                };
+        }
+    }
+
+    /**
+     * Readers of the primitive properties stored in the columns of the same
+     * primitive type, see MappingBuilder.isPrimitiveColumn().
+     */
+    private static ColumnReader forPrimitive(EntityFieldMetaData field) {
+        switch (field.getDataType()) {
+            case INT:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.isNull(idx) ? null : row.getInt(idx);
+                    }
+
+                    void copy(Row row, int idx, EntityFieldMetaData field, Object target) {
+                        if (!row.isNull(idx)) {
+                            field.setInt(target, row.getInt(idx));
+                        }
+                    }
+                };
+            case BIGINT:
+            case COUNTER:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.isNull(idx) ? null : row.getLong(idx);
+                    }
+
+                    void copy(Row row, int idx, EntityFieldMetaData field, Object target) {
+                        if (!row.isNull(idx)) {
+                            field.setLong(target, row.getLong(idx));
+                        }
+                    }
+                };
+            case DOUBLE:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.isNull(idx) ? null : row.getDouble(idx);
+                    }
+
+                    void copy(Row row, int idx, EntityFieldMetaData field, Object target) {
+                        if (!row.isNull(idx)) {
+                            field.setDouble(target, row.getDouble(idx));
+                        }
+                    }
+                };
+            case FLOAT:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.isNull(idx) ? null : row.getFloat(idx);
+                    }
+
+                    void copy(Row row, int idx, EntityFieldMetaData field, Object target) {
+                        if (!row.isNull(idx)) {
+                            field.setFloat(target, row.getFloat(idx));
+                        }
+                    }
+                };
+            case BOOLEAN:
+                return new ColumnReader() {
+                    Object read(Row row, int idx) {
+                        return row.isNull(idx) ? null : row.getBool(idx);
+                    }
+
+                    void copy(Row row, int idx, EntityFieldMetaData field, Object target) {
+                        if (!row.isNull(idx)) {
+                            field.setBoolean(target, row.getBool(idx));
+                        }
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Not a primitive column: " + field.getColumnName());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.builder;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.mapping.EntityTypeParser;
+import com.datastax.driver.mapping.meta.EntityFieldMetaData;
+
+/**
+ * Iterator mapping the rows of a ResultSet to entities as they are read.
+ * Rows are not materialized into a list. The next page is requested in the
+ * background once half of the current page is consumed, so memory is
+ * bounded by the fetch size and mapping overlaps with fetching.
+ */
+public class EntityIterator<T> implements Iterator<T> {
+
+    private final Class<T>                  clazz;
+    private final ResultSet                 rs;
+    private final EntityRowMapper<T>        mapper;
+    private final List<EntityFieldMetaData> fields;
+
+    // reflective mapping, columns resolved per ColumnDefinitions
+    private ColumnDefinitions               defs;
+    private int[]                           indexes;
+
+    private int                             prefetchAt = -1;
+
+    public EntityIterator(Class<T> clazz, ResultSet rs) {
+        this.clazz = clazz;
+        this.rs = rs;
+        this.mapper = MappingBuilder.getRowMapper(clazz);
+        this.fields = mapper == null ? EntityTypeParser.getEntityMetadata(clazz).getFields() : null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        int available = rs.getAvailableWithoutFetching();
+        if (prefetchAt < 0) {
+            prefetchAt = available / 2;
+        }
+        if (available == prefetchAt && !rs.isFullyFetched()) {
+            rs.fetchMoreResults();
+        }
+        return !rs.isExhausted();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return map(rs.one());
+    }
+
+    /**
+     * Map the rows which are already fetched, without waiting for the next
+     * page. Used to map results asynchronously page by page.
+     */
+    public void mapAvailable(Collection<? super T> target) {
+        for (int n = rs.getAvailableWithoutFetching(); n > 0; n--) {
+            target.add(map(rs.one()));
+        }
+    }
+
+    private T map(Row row) {
+        if (mapper != null) {
+            return mapper.map(row);
+        }
+        if (row.getColumnDefinitions() != defs) {
+            defs = row.getColumnDefinitions();
+            indexes = MappingBuilder.resolveColumns(fields, defs);
+        }
+        return MappingBuilder.getFromRowReflective(clazz, row, indexes);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
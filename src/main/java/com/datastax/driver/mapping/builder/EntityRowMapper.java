@@ -0,0 +1,172 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.builder;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.TypeCodec;
+import com.datastax.driver.mapping.meta.EntityFieldMetaData;
+import com.datastax.driver.mapping.meta.EntityTypeMetadata;
+import com.datastax.driver.mapping.meta.PrimaryKeyMetadata;
+
+/**
+ * Row mapper compiled once per entity type. Column readers and the target
+ * of each property (entity, primary key or partition key) are resolved when
+ * the mapper is built, so mapping a row is a plain loop over the fields.
+ */
+public class EntityRowMapper<T> {
+
+    private static final int ENTITY    = 0;
+    private static final int PRIMARY   = 1;
+    private static final int PARTITION = 2;
+
+    private final Class<T>              clazz;
+    private final EntityTypeMetadata    entityMetadata;
+    private final EntityFieldMetaData   pkField;
+    private final EntityFieldMetaData   partitionField;
+    private final EntityFieldMetaData[] fields;
+    private final ColumnReader[]        readers;
+    private final int[]                 targets;
+
+    // column positions resolved for the last seen ColumnDefinitions
+    private volatile ColumnIndexes      indexes;
+
+    public EntityRowMapper(Class<T> clazz, EntityTypeMetadata entityMetadata) {
+        this.clazz = clazz;
+        this.entityMetadata = entityMetadata;
+
+        PrimaryKeyMetadata pkmeta = entityMetadata.getPrimaryKeyMetadata();
+        if (pkmeta != null && pkmeta.isCompound()) {
+            pkField = pkmeta.getOwnField();
+            partitionField = pkmeta.hasPartitionKey() ? pkmeta.getPartitionKey().getOwnField() : null;
+        } else {
+            pkField = null;
+            partitionField = null;
+        }
+
+        List<EntityFieldMetaData> all = entityMetadata.getFields();
+        fields = all.toArray(new EntityFieldMetaData[all.size()]);
+        readers = new ColumnReader[fields.length];
+        targets = new int[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            readers[i] = ColumnReader.forField(fields[i]);
+            if (fields[i].isPartition()) {
+                targets[i] = PARTITION;
+            } else if (fields[i].isPrimary()) {
+                targets[i] = PRIMARY;
+            } else {
+                targets[i] = ENTITY;
+            }
+        }
+    }
+
+    /**
+     * Convert individual ResultSet Row into Entity instance
+     */
+    public T map(Row row) {
+        T entity = null;
+        Object primaryKey = null;
+        Object partitionKey = null;
+
+        try {
+            entity = clazz.newInstance();
+            if (pkField != null) {
+                primaryKey = pkField.getType().newInstance();
+                pkField.setValue(entity, primaryKey);
+                if (partitionField != null) {
+                    partitionKey = partitionField.getType().newInstance();
+                    partitionField.setValue(primaryKey, partitionKey);
+                }
+            }
+        } catch (Exception e) {
+            // skip error to support any-2-any
+        }
+
+        ColumnIndexes plan = getColumnIndexes(row.getColumnDefinitions());
+        int[] columns = plan.positions;
+        for (int i = 0; i < fields.length; i++) {
+            if (columns[i] < 0) {
+                continue; // column is not selected
+            }
+            Object target;
+            switch (targets[i]) {
+                case PARTITION:
+                    target = partitionKey;
+                    break;
+                case PRIMARY:
+                    target = primaryKey;
+                    break;
+                default:
+                    target = entity;
+            }
+            TypeCodec<Object> codec = plan.codecs[i];
+            if (codec != null) {
+                // collections are never null
+                fields[i].setValue(target, row.get(columns[i], codec));
+            } else {
+                readers[i].copy(row, columns[i], fields[i], target);
+            }
+        }
+        return entity;
+    }
+
+    /**
+     * Positions of the mapped columns in the rows described by defs.
+     * All rows of a ResultSet share the same ColumnDefinitions, so the
+     * lookup by name and the type check are done once per ResultSet rather
+     * than once per cell. Incompatible columns are resolved to -1.
+     */
+    ColumnIndexes getColumnIndexes(ColumnDefinitions defs) {
+        ColumnIndexes current = indexes;
+        if (current == null || current.defs != defs) {
+            current = new ColumnIndexes(defs, MappingBuilder.resolveColumns(Arrays.asList(fields), defs));
+            indexes = current;
+        }
+        return current;
+    }
+
+    public Class<T> getEntityClass() {
+        return clazz;
+    }
+
+    public EntityTypeMetadata getEntityMetadata() {
+        return entityMetadata;
+    }
+
+    /**
+     * Column positions and, for collections, codecs for the column types.
+     */
+    class ColumnIndexes {
+        final ColumnDefinitions   defs;
+        final int[]               positions;
+        final TypeCodec<Object>[] codecs;
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        ColumnIndexes(ColumnDefinitions defs, int[] positions) {
+            this.defs = defs;
+            this.positions = positions;
+            this.codecs = new TypeCodec[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                if (positions[i] >= 0 && defs.getType(positions[i]).isCollection()) {
+                    codecs[i] = CollectionCodecs.forColumn(fields[i], defs.getType(positions[i]));
+                }
+            }
+        }
+    }
+}
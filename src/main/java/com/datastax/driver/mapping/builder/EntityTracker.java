@@ -0,0 +1,86 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.builder;
+
+import java.util.List;
+
+import com.datastax.driver.mapping.EntityTypeParser;
+import com.datastax.driver.mapping.meta.EntityFieldMetaData;
+import com.datastax.driver.mapping.meta.EntityTypeMetadata;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Snapshots of the property values of the entities read by a MappingSession,
+ * so its save() can write only the changed columns. Snapshots are keyed by
+ * identity and weakly referenced, an entity no longer used by the
+ * application is dropped with its snapshot. Each session with
+ * setTrackChanges(true) owns its tracker.
+ */
+public class EntityTracker {
+
+    private final Cache<Object, Snapshot> snapshots = CacheBuilder.newBuilder().weakKeys().build();
+
+    /**
+     * Remember the current state of the entity. Collections and Dates are
+     * copied, so later changes of the instance are detected.
+     */
+    public void track(Object entity) {
+        if (entity == null) {
+            return;
+        }
+        track(EntityTypeParser.getEntityMetadata(entity.getClass()), entity);
+    }
+
+    void track(EntityTypeMetadata entityMetadata, Object entity) {
+        List<EntityFieldMetaData> fields = entityMetadata.getFields();
+        List<String> pkCols = entityMetadata.getPkColumns();
+        Object[] values = new Object[fields.size()];
+        for (int i = 0; i < values.length; i++) {
+            EntityFieldMetaData field = fields.get(i);
+            if (!pkCols.contains(field.getColumnName())) {
+                Object value = field.getValue(entity);
+                values[i] = value == null ? null : MappingBuilder.copyValue(field, value);
+            }
+        }
+        snapshots.put(entity, new Snapshot(entityMetadata.getEntityPKValues(entity), values));
+    }
+
+    /**
+     * @return the state of the entity when read or last saved, null if not
+     *         tracked
+     */
+    Snapshot get(Object entity) {
+        return snapshots.getIfPresent(entity);
+    }
+
+    /** the next save writes all columns */
+    public void forget(Object entity) {
+        snapshots.invalidate(entity);
+    }
+
+    static class Snapshot {
+        /** primary key values */
+        final List<Object> pkValues;
+        /** property values by position in EntityTypeMetadata.getFields() */
+        final Object[]     values;
+
+        Snapshot(List<Object> pkValues, Object[] values) {
+            this.pkValues = pkValues;
+            this.values = values;
+        }
+    }
+}
@@ -23,12 +23,21 @@ import com.datastax.driver.mapping.meta.EntityTypeMetadata;
 import com.datastax.driver.mapping.meta.PrimaryKeyMetadata;
 import com.datastax.driver.mapping.option.ReadOptions;
 import com.datastax.driver.mapping.option.WriteOptions;
+import com.google.common.base.Function;
+import com.google.common.base.Objects;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
@@ -41,10 +50,36 @@ import static com.datastax.driver.core.querybuilder.QueryBuilder.*;
 public class MappingBuilder {
     protected static final Logger                     log            = Logger.getLogger(MappingBuilder.class.getName());
     protected static Cache<String, PreparedStatement> statementCache = CacheBuilder.newBuilder().expireAfterAccess(5, TimeUnit.MINUTES).maximumSize(1000).concurrencyLevel(4).build();
+    protected static final ConcurrentMap<Class<?>, EntityRowMapper<?>> rowMappers = new ConcurrentHashMap<Class<?>, EntityRowMapper<?>>();
+    protected static volatile boolean                 useRowMappers  = false;
+    private static final Set<String>                  reportedProblems = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
     private MappingBuilder() {
     }
 
+    /**
+     * Asynchronous getOrPrepareStatement(). Concurrent misses may prepare the
+     * same statement more than once, the last one stays in the cache.
+     */
+    public static ListenableFuture<PreparedStatement> getOrPrepareStatementAsync(Session session, BuiltStatement stmt, String key) {
+        String cacheKey = getCacheKey(key, session);
+        PreparedStatement ps = statementCache.getIfPresent(cacheKey);
+        if (ps != null) {
+            return Futures.immediateFuture(ps);
+        }
+        return prepareAsync(session, stmt, cacheKey);
+    }
+
+    private static ListenableFuture<PreparedStatement> prepareAsync(Session session, RegularStatement stmt, final String cacheKey) {
+        return Futures.transform(session.prepareAsync(stmt), new Function<PreparedStatement, PreparedStatement>() {
+            @Override
+            public PreparedStatement apply(PreparedStatement ps) {
+                statementCache.put(cacheKey, ps);
+                return ps;
+            }
+        });
+    }
+
     /**
      * Get statement from the cache or Prepare statement and place it in the
      * cache.
@@ -72,6 +107,7 @@ public class MappingBuilder {
     public static <E> BuiltStatement prepareSave(E entity, WriteOptions options, String keyspace) {
         Class<?> clazz = entity.getClass();
         EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        checkNotCounter(entityMetadata);
         long version = Long.MIN_VALUE;
         if (entityMetadata.hasVersion()) {
             EntityFieldMetaData verField = entityMetadata.getVersionField();
@@ -87,6 +123,440 @@ public class MappingBuilder {
         return stmt;
     }
 
+    /**
+     * Prepare BoundStatement to persist an entity. Values are bound into a
+     * cached PreparedStatement, so every save of the same entity type reuses
+     * the same CQL string.
+     * 
+     * @return BoundStatement
+     */
+    public static <E> BoundStatement prepareSave(E entity, WriteOptions options, String keyspace, Session session) {
+        return prepareSave(entity, options, keyspace, session, null);
+    }
+
+    /**
+     * Prepare BoundStatement to persist an entity. An entity tracked by the
+     * tracker is saved as an update of the changed columns only and tracked
+     * with its new state.
+     * 
+     * @param tracker snapshots of the entities read, null to save all columns
+     * @return BoundStatement or null if a tracked entity is unchanged
+     */
+    public static <E> BoundStatement prepareSave(E entity, WriteOptions options, String keyspace, Session session, EntityTracker tracker) {
+        Class<?> clazz = entity.getClass();
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        checkNotCounter(entityMetadata);
+
+        // tracked entity of the same row, write the changed columns only
+        EntityTracker.Snapshot snapshot = tracker == null ? null : tracker.get(entity);
+        if (snapshot != null) {
+            BoundStatement bs;
+            if (snapshot.pkValues.equals(entityMetadata.getEntityPKValues(entity))) {
+                bs = prepareChangedUpdate(entity, snapshot, options, keyspace, session);
+            } else {
+                bs = prepareFullSave(entity, options, keyspace, session);
+            }
+            tracker.track(entityMetadata, entity);
+            return bs;
+        }
+        return prepareFullSave(entity, options, keyspace, session);
+    }
+
+    private static <E> BoundStatement prepareFullSave(E entity, WriteOptions options, String keyspace, Session session) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(entity.getClass());
+        long version = Long.MIN_VALUE;
+        if (entityMetadata.hasVersion()) {
+            EntityFieldMetaData verField = entityMetadata.getVersionField();
+            version = ((Long) verField.getValue(entity)).longValue();
+        }
+
+        if (version > 0) {
+            return prepareEntityUpdate(entity, options, keyspace, session);
+        }
+        return prepareInsert(entity, options, keyspace, session);
+    }
+
+    /**
+     * Prepare BoundStatement to update only the columns changed since the
+     * entity was read or last saved. Collections are updated element by
+     * element where possible, see diffCollection(). If entity has @Version
+     * field the update is conditional on the previous version.
+     * 
+     * @return BoundStatement or null if nothing changed
+     */
+    private static <E> BoundStatement prepareChangedUpdate(E entity, EntityTracker.Snapshot snapshot, WriteOptions options, String keyspace, Session session) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(entity.getClass());
+        List<EntityFieldMetaData> fields = entityMetadata.getFields();
+        List<String> pkCols = entityMetadata.getPkColumns();
+        EntityFieldMetaData verField = entityMetadata.hasVersion() ? entityMetadata.getVersionField() : null;
+
+        Update update = QueryBuilder.update(keyspace, entityMetadata.getTableName());
+        List<Object> values = new ArrayList<Object>();
+        List<Object> whereValues = new ArrayList<Object>(pkCols.size());
+        for (int i = 0; i < fields.size(); i++) {
+            EntityFieldMetaData field = fields.get(i);
+            String colName = field.getColumnName();
+            if (pkCols.contains(colName)) {
+                update.where(eq(colName, QueryBuilder.bindMarker()));
+                whereValues.add(toBindValue(field, snapshot.pkValues.get(pkCols.indexOf(colName))));
+            } else if (!field.equals(verField)) {
+                Object value = field.getValue(entity);
+                if (!Objects.equal(value, snapshot.values[i]) && !diffCollection(update, values, colName, snapshot.values[i], value)) {
+                    update.with(set(colName, QueryBuilder.bindMarker()));
+                    values.add(toBindValue(field, value));
+                }
+            }
+        }
+        if (values.isEmpty()) {
+            return null;
+        }
+
+        Object oldVersion = null;
+        if (verField != null) {
+            oldVersion = verField.getValue(entity);
+            Object newVersion = incVersion(oldVersion);
+            verField.setValue(entity, newVersion);
+            update.with(set(verField.getColumnName(), QueryBuilder.bindMarker()));
+            values.add(newVersion);
+            update.onlyIf(eq(verField.getColumnName(), QueryBuilder.bindMarker()));
+        }
+
+        // markers order: USING, SET, WHERE, IF
+        values.addAll(0, applyUsing(options, update, entityMetadata));
+        values.addAll(whereValues);
+        if (oldVersion != null) {
+            values.add(oldVersion);
+        }
+
+        PreparedStatement ps = getOrPrepareStatement(session, update, update.getQueryString());
+        BoundStatement bs = ps.bind(values.toArray());
+        applyOptions(options, bs);
+        return bs;
+    }
+
+    /**
+     * Append the element level changes of a collection as additions and
+     * removals, which unlike an overwrite write no range tombstone. Lists
+     * are diffed if elements are only appended or only removed.
+     * 
+     * @return false if the change can only be written as an overwrite
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static boolean diffCollection(Update update, List<Object> values, String colName, Object old, Object value) {
+        if (old instanceof Set || value instanceof Set) {
+            Set<?> oldSet = old == null ? Collections.emptySet() : (Set<?>) old;
+            Set<?> newSet = value == null ? Collections.emptySet() : (Set<?>) value;
+            Set<Object> added = new LinkedHashSet<Object>(newSet);
+            added.removeAll(oldSet);
+            Set<Object> removed = new LinkedHashSet<Object>(oldSet);
+            removed.removeAll(newSet);
+            if (!added.isEmpty()) {
+                update.with(addAll(colName, QueryBuilder.bindMarker()));
+                values.add(added);
+            }
+            if (!removed.isEmpty()) {
+                update.with(removeAll(colName, QueryBuilder.bindMarker()));
+                values.add(removed);
+            }
+            return true;
+        }
+
+        if (old instanceof Map || value instanceof Map) {
+            Map<?, ?> oldMap = old == null ? Collections.emptyMap() : (Map<?, ?>) old;
+            Map<?, ?> newMap = value == null ? Collections.emptyMap() : (Map<?, ?>) value;
+            Map<Object, Object> put = new LinkedHashMap<Object, Object>();
+            for (Map.Entry<?, ?> e : newMap.entrySet()) {
+                if (!oldMap.containsKey(e.getKey()) || !Objects.equal(oldMap.get(e.getKey()), e.getValue())) {
+                    put.put(e.getKey(), e.getValue());
+                }
+            }
+            Set<Object> removed = new LinkedHashSet<Object>(oldMap.keySet());
+            removed.removeAll(newMap.keySet());
+            if (!put.isEmpty()) {
+                update.with(putAll(colName, QueryBuilder.bindMarker()));
+                values.add(put);
+            }
+            if (!removed.isEmpty()) {
+                update.with(removeAll(colName, QueryBuilder.bindMarker()));
+                values.add(removed);
+            }
+            return true;
+        }
+
+        if (old instanceof List || value instanceof List) {
+            List<?> oldList = old == null ? Collections.emptyList() : (List<?>) old;
+            List<?> newList = value == null ? Collections.emptyList() : (List<?>) value;
+            if (newList.size() >= oldList.size() && newList.subList(0, oldList.size()).equals(oldList)) {
+                if (newList.size() > oldList.size()) {
+                    update.with(appendAll(colName, QueryBuilder.bindMarker()));
+                    values.add(new ArrayList<Object>(newList.subList(oldList.size(), newList.size())));
+                }
+                return true;
+            }
+            // removal discards every occurrence of a value
+            Set<Object> removed = new LinkedHashSet<Object>(oldList);
+            removed.removeAll(newList);
+            List<Object> remaining = new ArrayList<Object>(oldList);
+            remaining.removeAll(removed);
+            if (!removed.isEmpty() && remaining.equals(newList)) {
+                update.with(discardAll(colName, QueryBuilder.bindMarker()));
+                values.add(new ArrayList<Object>(removed));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Prepare BoundStatement to insert an entity. Auto generated keys with no
+     * value are inlined as now() or uuid() function calls and are not bound.
+     * 
+     * @param entity to be inserted
+     * @return com.datastax.driver.core.BoundStatement
+     */
+    public static <E> BoundStatement prepareInsert(E entity, WriteOptions options, String keyspace, Session session) {
+        Class<?> clazz = entity.getClass();
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        List<EntityFieldMetaData> fields = entityMetadata.getFields();
+
+        List<String> pkCols = entityMetadata.getPkColumns();
+        List<Object> pkVals = entityMetadata.getEntityPKValues(entity);
+
+        Insert insert = insertInto(keyspace, entityMetadata.getTableName());
+        List<Object> values = new ArrayList<Object>(fields.size());
+        // positions of null properties, left unset if skipNulls
+        List<Integer> nulls = new ArrayList<Integer>();
+        // primitive properties by marker position, bound after the others
+        EntityFieldMetaData[] primitives = new EntityFieldMetaData[fields.size()];
+
+        // increment and set @Version field
+        EntityFieldMetaData verField = null;
+        if (entityMetadata.hasVersion()) {
+            verField = entityMetadata.getVersionField();
+            verField.setValue(entity, incVersion(verField.getValue(entity)));
+        }
+
+        for (EntityFieldMetaData f : fields) {
+            String colName = f.getColumnName();
+            Object colVal = null;
+            if (pkCols.contains(colName)) {
+                colVal = pkVals.get(pkCols.indexOf(colName));
+                if (colVal == null && f.isAutoGenerate()) {
+                    if (f.getDataType() == DataType.Name.TIMEUUID) {
+                        insert.value(colName, QueryBuilder.fcall("now"));
+                        continue;
+                    } else if (f.getDataType() == DataType.Name.UUID) {
+                        insert.value(colName, QueryBuilder.fcall("uuid"));
+                        continue;
+                    }
+                }
+            } else if (isPrimitiveColumn(f)) {
+                primitives[values.size()] = f;
+            } else {
+                colVal = f.getValue(entity);
+                if (colVal == null) {
+                    nulls.add(values.size());
+                }
+            }
+            insert.value(colName, QueryBuilder.bindMarker());
+            values.add(toBindValue(f, colVal));
+        }
+
+        if (verField != null) {
+            insert.ifNotExists();
+        }
+        // markers order: VALUES, USING
+        values.addAll(applyUsing(options, insert, entityMetadata));
+
+        PreparedStatement ps = getOrPrepareStatement(session, insert, insert.getQueryString());
+        BoundStatement bs = ps.bind(values.toArray());
+        bindPrimitives(bs, primitives, entity);
+        unsetNulls(bs, nulls, options, entityMetadata, session);
+        applyOptions(options, bs);
+        return bs;
+    }
+
+    /**
+     * Prepare BoundStatement to update an entity. If entity has @Version
+     * field the update is conditional on the previous version.
+     * 
+     * @param entity to be updated
+     * @return com.datastax.driver.core.BoundStatement
+     */
+    public static <E> BoundStatement prepareEntityUpdate(E entity, WriteOptions options, String keyspace, Session session) {
+        Class<?> clazz = entity.getClass();
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        List<EntityFieldMetaData> fields = entityMetadata.getFields();
+
+        List<String> pkCols = entityMetadata.getPkColumns();
+        List<Object> pkVals = entityMetadata.getEntityPKValues(entity);
+
+        Update update = QueryBuilder.update(keyspace, entityMetadata.getTableName());
+        // USING markers come first, positions of the SET values follow them
+        List<Object> values = applyUsing(options, update, entityMetadata);
+        List<Object> whereValues = new ArrayList<Object>(pkCols.size());
+        EntityFieldMetaData[] primitives = new EntityFieldMetaData[fields.size() + values.size() + 1];
+        List<Integer> nulls = new ArrayList<Integer>();
+
+        // increment and set @Version field
+        Object oldVersion = null;
+        if (entityMetadata.hasVersion()) {
+            EntityFieldMetaData verField = entityMetadata.getVersionField();
+            oldVersion = verField.getValue(entity);
+            verField.setValue(entity, incVersion(oldVersion));
+            update.onlyIf(eq(verField.getColumnName(), QueryBuilder.bindMarker()));
+        }
+
+        for (EntityFieldMetaData field : fields) {
+            String colName = field.getColumnName();
+            if (pkCols.contains(colName)) {
+                update.where(eq(colName, QueryBuilder.bindMarker()));
+                whereValues.add(toBindValue(field, pkVals.get(pkCols.indexOf(colName))));
+            } else if (isPrimitiveColumn(field)) {
+                update.with(set(colName, QueryBuilder.bindMarker()));
+                primitives[values.size()] = field;
+                values.add(null);
+            } else {
+                update.with(set(colName, QueryBuilder.bindMarker()));
+                Object colVal = field.getValue(entity);
+                if (colVal == null) {
+                    nulls.add(values.size());
+                }
+                values.add(toBindValue(field, colVal));
+            }
+        }
+
+        // markers order: USING, SET, WHERE, IF
+        values.addAll(whereValues);
+        if (oldVersion != null) {
+            values.add(oldVersion);
+        }
+
+        PreparedStatement ps = getOrPrepareStatement(session, update, update.getQueryString());
+        BoundStatement bs = ps.bind(values.toArray());
+        bindPrimitives(bs, primitives, entity);
+        unsetNulls(bs, nulls, options, entityMetadata, session);
+        applyOptions(options, bs);
+        return bs;
+    }
+
+    /**
+     * Leave the null properties unset instead of writing null, which would
+     * create a tombstone per cell. Unset values need protocol v4, with older
+     * versions nulls are written and a warning is logged once per entity.
+     */
+    private static void unsetNulls(BoundStatement bs, List<Integer> nulls, WriteOptions options, EntityTypeMetadata emeta, Session session) {
+        if (nulls.isEmpty() || !isSkipNulls(options, emeta)) {
+            return;
+        }
+        ProtocolVersion version = session.getCluster().getConfiguration().getProtocolOptions().getProtocolVersion();
+        if (version == null || version.compareTo(ProtocolVersion.V4) < 0) {
+            String problem = "skip nulls of " + emeta.getEntityClass().getName() + " needs protocol V4, not " + version
+                    + ", nulls are written";
+            if (reportedProblems.add(problem)) {
+                log.warning(problem);
+            }
+            return;
+        }
+        for (Integer idx : nulls) {
+            bs.unset(idx);
+        }
+    }
+
+    /** WriteOptions.getSkipNulls() if set, otherwise @SkipNulls of the entity */
+    protected static boolean isSkipNulls(WriteOptions options, EntityTypeMetadata emeta) {
+        if (options != null && options.getSkipNulls() != null) {
+            return options.getSkipNulls();
+        }
+        return emeta != null && emeta.isSkipNulls();
+    }
+
+    private static void bindPrimitives(BoundStatement bs, EntityFieldMetaData[] primitives, Object entity) {
+        for (int i = 0; i < primitives.length; i++) {
+            if (primitives[i] != null) {
+                bindPrimitive(bs, i, primitives[i], entity);
+            }
+        }
+    }
+
+    /**
+     * Append USING TTL ? and TIMESTAMP ? to the insert. The values are bound,
+     * so a single prepared statement serves every ttl and timestamp.
+     * Consistency and retry policy are not part of the query and belong to
+     * the BoundStatement.
+     * 
+     * @return values of the USING markers, they follow the VALUES markers
+     */
+    protected static List<Object> applyUsing(WriteOptions options, Insert insert, EntityTypeMetadata emeta) {
+        List<Object> using = new ArrayList<Object>();
+        int ttl = getTtl(options, emeta);
+        if (ttl > -1) {
+            insert.using(ttl(QueryBuilder.bindMarker()));
+            using.add(ttl);
+        }
+        if (options != null && options.getTimestamp() != -1) {
+            insert.using(timestamp(QueryBuilder.bindMarker()));
+            using.add(options.getTimestamp());
+        }
+        return using;
+    }
+
+    /**
+     * Append USING TTL ? and TIMESTAMP ? to the update, see the insert
+     * variant.
+     * 
+     * @return values of the USING markers, they precede the SET markers
+     */
+    protected static List<Object> applyUsing(WriteOptions options, Update update, EntityTypeMetadata emeta) {
+        List<Object> using = new ArrayList<Object>();
+        int ttl = getTtl(options, emeta);
+        if (ttl > -1) {
+            update.using(ttl(QueryBuilder.bindMarker()));
+            using.add(ttl);
+        }
+        if (options != null && options.getTimestamp() != -1) {
+            update.using(timestamp(QueryBuilder.bindMarker()));
+            using.add(options.getTimestamp());
+        }
+        return using;
+    }
+
+    /**
+     * Apply consistency level and retry policy to the BoundStatement.
+     */
+    public static void applyOptions(WriteOptions options, BoundStatement bs) {
+        if (options != null) {
+            if (options.getConsistencyLevel() != null) {
+                bs.setConsistencyLevel(options.getConsistencyLevel());
+            }
+
+            if (options.getRetryPolicy() != null) {
+                bs.setRetryPolicy(options.getRetryPolicy());
+            }
+        }
+    }
+
+    /**
+     * Convert java value to the one accepted by the codec of the column. The
+     * literal path lets Cassandra coerce numbers while the bound path does not.
+     */
+    protected static Object toBindValue(EntityFieldMetaData field, Object value) {
+        if (value instanceof Number) {
+            switch (field.getDataType()) {
+                case TIMESTAMP:
+                    return new Date(((Number) value).longValue());
+                case BIGINT:
+                case COUNTER:
+                    return ((Number) value).longValue();
+                case INT:
+                    return ((Number) value).intValue();
+                default:
+                    break;
+            }
+        }
+        return value;
+    }
+
     /**
      * Statement to persist an entity in Cassandra
      * 
@@ -279,6 +749,90 @@ public class MappingBuilder {
         return newVersion;
     }
 
+    /**
+     * Asynchronous prepareSelect(). On a cache miss the select is prepared
+     * with session.prepareAsync and cached once prepared.
+     */
+    public static <T> ListenableFuture<BoundStatement> prepareSelectAsync(Class<T> clazz, Object id, ReadOptions options, String keyspace, Session session) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        List<EntityFieldMetaData> fields = entityMetadata.getFields();
+        List<String> pkCols = entityMetadata.getPkColumns();
+        String table = entityMetadata.getTableName();
+
+        String key = getSelectCacheKey(table, session, fields);
+        PreparedStatement cached = statementCache.getIfPresent(key);
+        ListenableFuture<PreparedStatement> ps;
+        if (cached != null) {
+            ps = Futures.immediateFuture(cached);
+        } else {
+            ps = prepareAsync(session, buildSelectAll(table, pkCols, options, keyspace, fields), key);
+        }
+
+        final Object[] values = entityMetadata.getIdValues(id).toArray(new Object[pkCols.size()]);
+        return Futures.transform(ps, new Function<PreparedStatement, BoundStatement>() {
+            @Override
+            public BoundStatement apply(PreparedStatement ps) {
+                return ps.bind(values);
+            }
+        });
+    }
+
+    /**
+     * Prepare select of several rows which differ only in the last primary
+     * key column: WHERE k1=? AND ... AND kn IN ?
+     * 
+     * @param prefix values of all primary key columns but the last
+     * @param lastValues values of the last primary key column
+     */
+    public static <T> ListenableFuture<BoundStatement> prepareSelectInAsync(Class<T> clazz, List<Object> prefix, List<Object> lastValues, ReadOptions options, String keyspace, Session session) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        List<EntityFieldMetaData> fields = entityMetadata.getFields();
+        List<String> pkCols = entityMetadata.getPkColumns();
+        String table = entityMetadata.getTableName();
+
+        String key = getSelectCacheKey(table, session, fields) + "IN";
+        PreparedStatement cached = statementCache.getIfPresent(key);
+        ListenableFuture<PreparedStatement> ps;
+        if (cached != null) {
+            ps = Futures.immediateFuture(cached);
+        } else {
+            Select select = makeSelectEachField(table, keyspace, fields);
+            int last = pkCols.size() - 1;
+            appendWhere(select, pkCols.subList(0, last));
+            select.where(in(pkCols.get(last), QueryBuilder.bindMarker()));
+            appendOptions(select, options);
+            ps = prepareAsync(session, select, key);
+        }
+
+        final Object[] values = new Object[prefix.size() + 1];
+        prefix.toArray(values);
+        values[prefix.size()] = lastValues;
+        return Futures.transform(ps, new Function<PreparedStatement, BoundStatement>() {
+            @Override
+            public BoundStatement apply(PreparedStatement ps) {
+                return ps.bind(values);
+            }
+        });
+    }
+
+    /**
+     * Prepare select of the token range of the entity table:
+     * WHERE token(pk) > ? AND token(pk) <= ?. Without upper bound the
+     * range lasts to the end of the ring.
+     */
+    public static <T> PreparedStatement prepareScan(Class<T> clazz, boolean upperBound, String keyspace, Session session) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        List<String> partitionCols = entityMetadata.getPartitionKeyColumns();
+        String token = token(partitionCols.toArray(new String[partitionCols.size()]));
+
+        Select select = makeSelectEachField(entityMetadata.getTableName(), keyspace, entityMetadata.getFields());
+        select.where(gt(token, QueryBuilder.bindMarker()));
+        if (upperBound) {
+            select.where(lte(token, QueryBuilder.bindMarker()));
+        }
+        return getOrPrepareStatement(session, select, select.getQueryString());
+    }
+
     /**
      * Prepare BoundStatement to select row by id
      */
@@ -385,103 +939,209 @@ public class MappingBuilder {
         return delete;
     }
 
-    @SuppressWarnings("unchecked")
     public static Object getValueFromRow(Row row, EntityFieldMetaData field) {
-        Object value = null;
-        try {
-            if (field.hasCollectionType()) {
-                value = field.getCollectionType().newInstance();
+        ColumnDefinitions defs = row.getColumnDefinitions();
+        int idx = defs.getIndexOf(field.getColumnName());
+        if (idx < 0 || !isCompatible(field, defs.getType(idx))) {
+            return null;
+        }
+        return getValueFromRow(row, idx, field);
+    }
+
+    /**
+     * Read the value of the field from the column at the given position.
+     * The column is expected to be checked with isCompatible(), so the
+     * read does not throw; null columns are returned as null.
+     */
+    public static Object getValueFromRow(Row row, int idx, EntityFieldMetaData field) {
+        DataType.Name dataType = field.getDataType();
+        switch (dataType) {
+            case MAP:
+            case LIST:
+            case SET:
+                // decoded into the target collection, null columns as empty ones
+                return row.get(idx, CollectionCodecs.forColumn(field, row.getColumnDefinitions().getType(idx)));
+            default:
+                break;
+        }
+
+        if (row.isNull(idx)) {
+            return null;
+        }
+        switch (dataType) {
+            case INET:
+                return row.getInet(idx);
+            case ASCII:
+            case TEXT:
+            case VARCHAR:
+                return row.getString(idx);
+            case BLOB:
+                return row.getBytes(idx);
+            case BOOLEAN:
+                return row.getBool(idx);
+            case TIMESTAMP:
+                if (field.getType() == Date.class) {
+                    return row.getTimestamp(idx);
+                }
+                return getTimestampMillis(row, idx);
+            case UUID:
+            case TIMEUUID:
+                return row.getUUID(idx);
+            case INT:
+                return row.getInt(idx);
+            case BIGINT:
+            case COUNTER:
+                return row.getLong(idx);
+            case DOUBLE:
+                return row.getDouble(idx);
+            case DECIMAL:
+                return row.getDecimal(idx);
+            case VARINT:
+                return row.getVarint(idx);
+            case FLOAT:
+                return row.getFloat(idx);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Milliseconds of the not null TIMESTAMP column read from the serialized
+     * value, so no Date is created for the long properties.
+     */
+    static long getTimestampMillis(Row row, int idx) {
+        ByteBuffer bytes = row.getBytesUnsafe(idx);
+        return bytes.getLong(bytes.position());
+    }
+
+    /**
+     * Indicates if the primitive property is stored in the column of the same
+     * primitive type, so it can be read and bound without boxing.
+     */
+    static boolean isPrimitiveColumn(EntityFieldMetaData field) {
+        Class<?> type = field.getType();
+        switch (field.getDataType()) {
+            case INT:
+                return type == int.class;
+            case BIGINT:
+            case COUNTER:
+                return type == long.class;
+            case DOUBLE:
+                return type == double.class;
+            case FLOAT:
+                return type == float.class;
+            case BOOLEAN:
+                return type == boolean.class;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Bind the value of the primitive property to the marker at idx without
+     * boxing. The field must satisfy isPrimitiveColumn().
+     */
+    static void bindPrimitive(BoundStatement bs, int idx, EntityFieldMetaData field, Object entity) {
+        switch (field.getDataType()) {
+            case INT:
+                bs.setInt(idx, field.getInt(entity));
+                break;
+            case BIGINT:
+            case COUNTER:
+                bs.setLong(idx, field.getLong(entity));
+                break;
+            case DOUBLE:
+                bs.setDouble(idx, field.getDouble(entity));
+                break;
+            case FLOAT:
+                bs.setFloat(idx, field.getFloat(entity));
+                break;
+            case BOOLEAN:
+                bs.setBool(idx, field.getBoolean(entity));
+                break;
+            default:
+                throw new IllegalArgumentException("Not a primitive column: " + field.getColumnName());
+        }
+    }
+
+    /**
+     * Check that the column of the given type can be read into the field.
+     */
+    public static boolean isCompatible(EntityFieldMetaData field, DataType columnType) {
+        DataType.Name expected = family(field.getDataType());
+        if (expected == null || expected != family(columnType.getName())) {
+            return false;
+        }
+        if (field.hasCollectionType()) {
+            // the target collection is created for every row
+            try {
+                newCollection(field.getCollectionType());
+            } catch (IllegalStateException e) {
+                return false;
             }
+        }
+        return true;
+    }
 
-            Class<?> cls = field.getType();
-            DataType.Name dataType = field.getDataType();
-            switch (dataType) {
-                case INET:
-                    value = row.getInet(field.getColumnName());
-                    break;
-                case ASCII:
-                    value = row.getString(field.getColumnName());
-                    break;
-                case BLOB:
-                    value = row.getBytes(field.getColumnName());
-                    break;
-                case BOOLEAN:
-                    value = row.getBool(field.getColumnName());
-                    break;
-                case TEXT:
-                    value = row.getString(field.getColumnName());
-                    break;
-                case TIMESTAMP:
-                	if (cls == Date.class) {
-                		value = row.getTimestamp(field.getColumnName());
-                	} else {
-                		value = (row.getTimestamp(field.getColumnName())).getTime();
-                	}
-                    break;
-                case UUID:
-                    value = row.getUUID(field.getColumnName());
-                    break;
-                case TIMEUUID:
-                    value = row.getUUID(field.getColumnName());
-                    break;
-                case INT:
-                    value = row.getInt(field.getColumnName());
-                    break;
-                case COUNTER:
-                    value = row.getLong(field.getColumnName());
-                    break;
-                case DOUBLE:
-                    value = row.getDouble(field.getColumnName());
-                    break;
-                case BIGINT:
-                    value = row.getLong(field.getColumnName());
-                    break;
-                case DECIMAL:
-                    value = row.getDecimal(field.getColumnName());
-                    break;
-                case VARINT:
-                    value = row.getVarint(field.getColumnName());
-                    break;
-                case FLOAT:
-                    value = row.getFloat(field.getColumnName());
-                    break;
-                case VARCHAR:
-                    value = row.getString(field.getColumnName());
-                    break;
-                case MAP:
-                    if (value == null) {
-                        value = new HashMap<Object, Object>();
-                    }
-                    Map<Object, Object> data = row.getMap(field.getColumnName(), Object.class, Object.class);
-                    if (!data.isEmpty()) {
-                        ((Map<Object, Object>) value).putAll(data);
-                    }
-                    break;
-                case LIST:
-                    if (value == null) {
-                        value = new ArrayList<Object>();
-                    }
-                    List<Object> lst = row.getList(field.getColumnName(), Object.class);
-                    if (!lst.isEmpty()) {
-                        ((List<Object>) value).addAll(lst);
-                    }
-                    break;
-                case SET:
-                    if (value == null) {
-                        value = new HashSet<Object>();
-                    }
-                    Set<Object> set = row.getSet(field.getColumnName(), Object.class);
-                    if (!set.isEmpty()) {
-                        ((Set<Object>) value).addAll(set);
+    /**
+     * Types which are decoded into the same java type share a family.
+     */
+    private static DataType.Name family(DataType.Name name) {
+        if (name == null) {
+            return null;
+        }
+        switch (name) {
+            case ASCII:
+            case TEXT:
+            case VARCHAR:
+                return DataType.Name.VARCHAR;
+            case TIMEUUID:
+                return DataType.Name.UUID;
+            case COUNTER:
+                return DataType.Name.BIGINT;
+            default:
+                return name;
+        }
+    }
+
+    /**
+     * Estimated size of the statement in a batch: the serialized bound values
+     * and, for statements which are not prepared, the query string.
+     */
+    public static long estimateSize(Statement statement) {
+        long size = 0;
+        if (statement instanceof BoundStatement) {
+            BoundStatement bs = (BoundStatement) statement;
+            int count = bs.preparedStatement().getVariables().size();
+            for (int i = 0; i < count; i++) {
+                if (bs.isSet(i) && !bs.isNull(i)) {
+                    size += bs.getBytesUnsafe(i).remaining();
+                }
+            }
+        } else if (statement instanceof RegularStatement) {
+            RegularStatement rs = (RegularStatement) statement;
+            size += rs.getQueryString().length();
+            if (rs.hasValues()) {
+                for (ByteBuffer value : rs.getValues(ProtocolVersion.NEWEST_SUPPORTED, CodecRegistry.DEFAULT_INSTANCE)) {
+                    if (value != null) {
+                        size += value.remaining();
                     }
-                    break;
-                default:
-                    break;
+                }
+            }
+        } else if (statement instanceof BatchStatement) {
+            for (Statement s : ((BatchStatement) statement).getStatements()) {
+                size += estimateSize(s);
             }
-        } catch (Exception ex) {
-            // swallow any mapping discrepancies.
         }
-        return value;
+        return size;
+    }
+
+    static Object newCollection(Class<?> collectionType) {
+        try {
+            return collectionType.newInstance();
+        } catch (Exception e) {
+            throw new IllegalStateException("Can't instantiate collection " + collectionType.getName(), e);
+        }
     }
 
     public static Cache<String, PreparedStatement> getStatementCache() {
@@ -500,20 +1160,66 @@ public class MappingBuilder {
      * @throws Exception
      */
     public static <T> List<T> getFromResultSet(Class<T> clazz, ResultSet rs) {
-        List<T> result = new ArrayList<T>();
-        for (Row row : rs.all()) {
-            result.add(getFromRow(clazz, row));
+        List<T> result = new ArrayList<T>(rs.getAvailableWithoutFetching());
+        for (Iterator<T> it = iterate(clazz, rs); it.hasNext();) {
+            result.add(it.next());
         }
         return result;
     }
 
+    /**
+     * Asynchronously convert ResultSet into List<Entity>. Rows are mapped on
+     * the executor page by page, following pages are fetched without
+     * blocking the executor.
+     */
+    public static <T> ListenableFuture<List<T>> getFromResultSetAsync(final Class<T> clazz, ListenableFuture<ResultSet> future, final Executor executor) {
+        final List<T> result = new ArrayList<T>();
+        return Futures.transform(future, new AsyncFunction<ResultSet, List<T>>() {
+            private EntityIterator<T> it;
+
+            @Override
+            public ListenableFuture<List<T>> apply(ResultSet rs) {
+                if (it == null) {
+                    it = new EntityIterator<T>(clazz, rs);
+                }
+                it.mapAvailable(result);
+                if (rs.isFullyFetched()) {
+                    return Futures.immediateFuture(result);
+                }
+                return Futures.transform(rs.fetchMoreResults(), this, executor);
+            }
+        }, executor);
+    }
+
+    /**
+     * Lazily convert ResultSet into Entities. Rows are mapped as they are read
+     * and the following pages are fetched by the driver on demand.
+     */
+    public static <T> Iterator<T> iterate(Class<T> clazz, ResultSet rs) {
+        return new EntityIterator<T>(clazz, rs);
+    }
+
     /**
      * Convert collection of ResultSet Rows into List<Entity>
      */
     public static <T> List<T> getFromRows(Class<T> clazz, Collection<Row> rows) {
-        List<T> result = new ArrayList<T>();
+        List<T> result = new ArrayList<T>(rows.size());
+        EntityRowMapper<T> mapper = getRowMapper(clazz);
+        if (mapper != null) {
+            for (Row row : rows) {
+                result.add(mapper.map(row));
+            }
+            return result;
+        }
+        List<EntityFieldMetaData> fields = EntityTypeParser.getEntityMetadata(clazz).getFields();
+        ColumnDefinitions defs = null;
+        int[] indexes = null;
         for (Row row : rows) {
-            result.add(getFromRow(clazz, row));
+            if (row.getColumnDefinitions() != defs) {
+                defs = row.getColumnDefinitions();
+                indexes = resolveColumns(fields, defs);
+            }
+            result.add(getFromRowReflective(clazz, row, indexes));
         }
         return result;
     }
@@ -522,6 +1228,83 @@ public class MappingBuilder {
      * Convert individual ResultSet Row into Entity instance
      */
     public static <T> T getFromRow(Class<T> clazz, Row row) {
+        EntityRowMapper<T> mapper = getRowMapper(clazz);
+        if (mapper != null) {
+            return mapper.map(row);
+        }
+        List<EntityFieldMetaData> fields = EntityTypeParser.getEntityMetadata(clazz).getFields();
+        return getFromRowReflective(clazz, row, resolveColumns(fields, row.getColumnDefinitions()));
+    }
+
+    /**
+     * Resolve position of the column for each field. Fields which are not
+     * in the ColumnDefinitions get -1 and are skipped. Columns which can't
+     * be read into the field are skipped as well and reported once.
+     */
+    public static int[] resolveColumns(List<EntityFieldMetaData> fields, ColumnDefinitions defs) {
+        int[] indexes = new int[fields.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            EntityFieldMetaData field = fields.get(i);
+            int idx = defs.getIndexOf(field.getColumnName());
+            if (idx >= 0 && !isCompatible(field, defs.getType(idx))) {
+                String problem = "column " + defs.getKeyspace(idx) + "." + defs.getTable(idx) + "." + field.getColumnName()
+                        + " of type " + defs.getType(idx) + " can't be mapped to property " + field.getName() + " of type "
+                        + field.getType().getName() + " (" + field.getDataType() + "), skipped";
+                if (reportedProblems.add(problem)) {
+                    log.warning(problem);
+                }
+                idx = -1;
+            }
+            indexes[i] = idx;
+        }
+        return indexes;
+    }
+
+    /**
+     * Get compiled row mapper for the entity. Mappers are built on first use
+     * when enabled by setUseRowMappers(true). If the mapper can't be built
+     * null is returned and the reflective mapping is used instead.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EntityRowMapper<T> getRowMapper(Class<T> clazz) {
+        if (!useRowMappers) {
+            return null;
+        }
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        EntityRowMapper<T> mapper = (EntityRowMapper<T>) rowMappers.get(clazz);
+        if (mapper == null || mapper.getEntityMetadata() != entityMetadata) {
+            // metadata was re-parsed, rebuild the mapper
+            try {
+                mapper = new EntityRowMapper<T>(clazz, entityMetadata);
+            } catch (Exception e) {
+                log.warning("Can't build row mapper for " + clazz.getName() + ", fallback to reflection: " + e);
+                return null;
+            }
+            rowMappers.put(clazz, mapper);
+        }
+        return mapper;
+    }
+
+    public static boolean isUseRowMappers() {
+        return useRowMappers;
+    }
+
+    /**
+     * Enable compiled per entity row mappers instead of the reflective
+     * mapping of each row.
+     */
+    public static void setUseRowMappers(boolean useRowMappers) {
+        MappingBuilder.useRowMappers = useRowMappers;
+        if (!useRowMappers) {
+            rowMappers.clear();
+        }
+    }
+
+    /**
+     * Reflective conversion of the individual ResultSet Row into Entity
+     * instance. Columns are read by the positions from resolveColumns().
+     */
+    protected static <T> T getFromRowReflective(Class<T> clazz, Row row, int[] indexes) {
         EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
 
         T entity = null;
@@ -548,24 +1331,115 @@ public class MappingBuilder {
         }
 
         // set properties' values
-        for (EntityFieldMetaData field : entityMetadata.getFields()) {
-            Object value = getValueFromRow(row, field);
-            try {
-                if (value != null) {
-                    if (field.isPartition()) {
-                        field.setValue(partitionKey, value);
-                    } else if (field.isPrimary()) {
-                        field.setValue(primaryKey, value);
-                    } else {
-                        field.setValue(entity, value);
+        List<EntityFieldMetaData> fields = entityMetadata.getFields();
+        for (int i = 0; i < indexes.length; i++) {
+            if (indexes[i] < 0) {
+                continue; // column is not selected
+            }
+            EntityFieldMetaData field = fields.get(i);
+            Object value = getValueFromRow(row, indexes[i], field);
+            if (value != null) {
+                if (field.isPartition()) {
+                    field.setValue(partitionKey, value);
+                } else if (field.isPrimary()) {
+                    field.setValue(primaryKey, value);
+                } else {
+                    field.setValue(entity, value);
+                }
+            }
+        }
+        return entity;
+    }
+
+    /**
+     * Copy of the entity. Primary key, collections and Dates are copied,
+     * ByteBuffers are duplicated, other values are shared.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T copy(T entity) {
+        Class<T> clazz = (Class<T>) entity.getClass();
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+
+        T copy;
+        Object primaryKey = null;
+        Object partitionKey = null;
+        Object copyPrimaryKey = null;
+        Object copyPartitionKey = null;
+        try {
+            copy = clazz.newInstance();
+            PrimaryKeyMetadata pkmeta = entityMetadata.getPrimaryKeyMetadata();
+            if (pkmeta.isCompound()) {
+                EntityFieldMetaData pkField = pkmeta.getOwnField();
+                primaryKey = pkField.getValue(entity);
+                if (primaryKey != null) {
+                    copyPrimaryKey = pkField.getType().newInstance();
+                    pkField.setValue(copy, copyPrimaryKey);
+                    if (pkmeta.hasPartitionKey()) {
+                        EntityFieldMetaData partField = pkmeta.getPartitionKey().getOwnField();
+                        partitionKey = partField.getValue(primaryKey);
+                        if (partitionKey != null) {
+                            copyPartitionKey = partField.getType().newInstance();
+                            partField.setValue(copyPrimaryKey, copyPartitionKey);
+                        }
                     }
+                }
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Can't copy " + clazz.getName(), e);
+        }
 
+        for (EntityFieldMetaData field : entityMetadata.getFields()) {
+            Object source = entity;
+            Object target = copy;
+            if (field.isPartition()) {
+                source = partitionKey;
+                target = copyPartitionKey;
+            } else if (field.isPrimary()) {
+                source = primaryKey;
+                target = copyPrimaryKey;
+            }
+            if (source == null) {
+                continue;
+            }
+            Object value = field.getValue(source);
+            if (value != null) {
+                field.setValue(target, copyValue(field, value));
+            }
+        }
+        return copy;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static Object copyValue(EntityFieldMetaData field, Object value) {
+        if (value instanceof Date) {
+            return new Date(((Date) value).getTime());
+        }
+        if (value instanceof ByteBuffer) {
+            return ((ByteBuffer) value).duplicate();
+        }
+        if (value instanceof Collection || value instanceof Map) {
+            Class<?> type = field.getCollectionType();
+            if (type == null) {
+                type = field.getType();
+            }
+            if (type.isInterface()) {
+                if (List.class.isAssignableFrom(type)) {
+                    type = ArrayList.class;
+                } else if (Set.class.isAssignableFrom(type)) {
+                    type = HashSet.class;
+                } else {
+                    type = HashMap.class;
                 }
-            } catch (Exception ex) {
-                ex.printStackTrace();
             }
+            Object copy = newCollection(type);
+            if (value instanceof Map) {
+                ((Map) copy).putAll((Map) value);
+            } else {
+                ((Collection) copy).addAll((Collection) value);
+            }
+            return copy;
         }
-        return entity;
+        return value;
     }
 
     public static BoundStatement prepareUpdate(Object id, EntityTypeMetadata emeta, Update update, Session session) {
@@ -576,6 +1450,48 @@ public class MappingBuilder {
         return prepareBoundStatement(id, emeta, update, pkCols, session);
     }
 
+    /**
+     * Prepare BoundStatement of the update by primary key with ttl and
+     * timestamp of the options, or the entity @Ttl, bound to USING markers.
+     */
+    public static BoundStatement prepareUpdate(Object id, EntityTypeMetadata emeta, Update update, WriteOptions options, Session session) {
+        return prepareUpdate(id, emeta, update, Collections.emptyList(), options, session);
+    }
+
+    /**
+     * Prepare BoundStatement of the update by primary key. Ttl and timestamp
+     * of the options, or the entity @Ttl, are bound to the USING markers
+     * followed by the values of the SET markers and the primary key.
+     * 
+     * @param setValues values of the markers in the SET clause
+     */
+    public static BoundStatement prepareUpdate(Object id, EntityTypeMetadata emeta, Update update, List<?> setValues, WriteOptions options, Session session) {
+        List<Object> values = applyUsing(options, update, emeta);
+        values.addAll(setValues);
+        List<String> pkCols = emeta.getPkColumns();
+        for (String col : pkCols) {
+            update.where(eq(col, QueryBuilder.bindMarker()));
+        }
+        values.addAll(emeta.getIdValues(id));
+        PreparedStatement ps = getOrPrepareStatement(session, update, update.getQueryString());
+        BoundStatement bs = ps.bind(values.toArray());
+        applyOptions(options, bs);
+        return bs;
+    }
+
+    /**
+     * Prepare BoundStatement to delete an entity by primary key.
+     */
+    public static <T> BoundStatement prepareDelete(Class<T> clazz, Object id, String keyspace, Session session) {
+        EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
+        Delete delete = QueryBuilder.delete().from(keyspace, emeta.getTableName());
+        List<String> pkCols = emeta.getPkColumns();
+        for (String col : pkCols) {
+            delete.where(eq(col, QueryBuilder.bindMarker()));
+        }
+        return prepareBoundStatement(id, emeta, delete, pkCols, session);
+    }
+
     public static <T> BoundStatement prepareDelete(Object id, Class<T> clazz, String propertyName, String keyspace, Session session) {
         EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
         EntityFieldMetaData fmeta = emeta.getFieldMetadata(propertyName);
@@ -595,45 +1511,54 @@ public class MappingBuilder {
         return ps.bind(values);
     }
 
+    /**
+     * Single items are bound as singleton collections, the driver can't bind
+     * a marker inside a collection literal.
+     */
     public static BoundStatement prepareRemoveItemsFromSetOrList(Object id, Class<?> clazz, String propertyName, Object item, String keyspace, Session session) {
         EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
         EntityFieldMetaData fmeta = emeta.getFieldMetadata(propertyName);
         Update update = QueryBuilder.update(keyspace, emeta.getTableName());
+        List<Object> values = new ArrayList<Object>(1);
 
         if (item instanceof Set<?> && fmeta.getType() == Set.class) {
             Set<?> set = (Set<?>) item;
             if (set.size() == 0)
                 return null;
-            update.with(QueryBuilder.removeAll(fmeta.getColumnName(), set));
+            update.with(QueryBuilder.removeAll(fmeta.getColumnName(), QueryBuilder.bindMarker()));
+            values.add(set);
         } else if (item instanceof List<?> && fmeta.getType() == List.class) {
             List<?> list = (List<?>) item;
             if (list.size() == 0)
                 return null;
-            update.with(QueryBuilder.discardAll(fmeta.getColumnName(), list));
+            update.with(QueryBuilder.discardAll(fmeta.getColumnName(), QueryBuilder.bindMarker()));
+            values.add(list);
         } else if (fmeta.getType() == Set.class) {
-            update.with(QueryBuilder.remove(fmeta.getColumnName(), item));
+            update.with(QueryBuilder.removeAll(fmeta.getColumnName(), QueryBuilder.bindMarker()));
+            values.add(Collections.singleton(item));
         } else if (fmeta.getType() == List.class) {
-            update.with(QueryBuilder.discard(fmeta.getColumnName(), item));
+            update.with(QueryBuilder.discardAll(fmeta.getColumnName(), QueryBuilder.bindMarker()));
+            values.add(Collections.singletonList(item));
         }
-        return prepareUpdate(id, emeta, update, session);
+        return prepareUpdate(id, emeta, update, values, null, session);
     }
 
     public static BoundStatement prepareUpdateValue(Object id, Class<?> clazz, String propertyName, Object value, WriteOptions options, String keyspace, Session session) {
         EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
         Update update = QueryBuilder.update(keyspace, emeta.getTableName());
-        setValueToUpdateStatement(emeta, update, propertyName, value);
-        applyOptions(options, update, null);
-        return prepareUpdate(id, emeta, update, session);
+        List<Object> setValues = new ArrayList<Object>(1);
+        setValueToUpdateStatement(emeta, update, propertyName, value, setValues);
+        return prepareUpdate(id, emeta, update, setValues, options, session);
     }
 
     public static BoundStatement prepareUpdateValues(Object id, Class<?> clazz, String[] propertyNames, Object[] values, WriteOptions options, String keyspace, Session session) {
         EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
         Update update = QueryBuilder.update(keyspace, emeta.getTableName());
+        List<Object> setValues = new ArrayList<Object>(propertyNames.length);
         for (int i=0; i<propertyNames.length; i++) {  
-            setValueToUpdateStatement(emeta, update, propertyNames[i], values[i]);
+            setValueToUpdateStatement(emeta, update, propertyNames[i], values[i], setValues);
         }
-        applyOptions(options, update, null);
-        return prepareUpdate(id, emeta, update, session);
+        return prepareUpdate(id, emeta, update, setValues, options, session);
     }
     
     public static void setValueToUpdateStatement(EntityTypeMetadata emeta, Update update, String propertyName, Object value) {
@@ -643,51 +1568,70 @@ public class MappingBuilder {
         }
         update.with(set(fmeta.getColumnName(), value));
     }
+
+    /**
+     * Append SET column = ? to the update and its value to setValues.
+     */
+    public static void setValueToUpdateStatement(EntityTypeMetadata emeta, Update update, String propertyName, Object value, List<Object> setValues) {
+        EntityFieldMetaData fmeta = emeta.getFieldMetadata(propertyName);
+        if (value != null && value.getClass().isEnum()) {
+            value = ((Enum<?>) value).name();
+        }
+        update.with(set(fmeta.getColumnName(), QueryBuilder.bindMarker()));
+        setValues.add(toBindValue(fmeta, value));
+    }
     
     public static BoundStatement prepareAppendItemToCollection(Object id, Class<?> clazz, String propertyName, Object item, WriteOptions options, String keyspace, Session session) {
         EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
         EntityFieldMetaData fmeta = emeta.getFieldMetadata(propertyName);
         Update update = QueryBuilder.update(keyspace, emeta.getTableName());
+        List<Object> values = new ArrayList<Object>(1);
 
         if (item instanceof Set<?> && fmeta.getType() == Set.class) {
             Set<?> set = (Set<?>) item;
             if (set.size() == 0)
                 return null;
-            update.with(QueryBuilder.addAll(fmeta.getColumnName(), set));
+            update.with(QueryBuilder.addAll(fmeta.getColumnName(), QueryBuilder.bindMarker()));
+            values.add(set);
         } else if (item instanceof List<?> && fmeta.getType() == List.class) {
             List<?> list = (List<?>) item;
             if (list.size() == 0)
                 return null;
-            update.with(QueryBuilder.appendAll(fmeta.getColumnName(), list));
+            update.with(QueryBuilder.appendAll(fmeta.getColumnName(), QueryBuilder.bindMarker()));
+            values.add(list);
         } else if (item instanceof Map<?, ?>) {
             Map<?, ?> map = (Map<?, ?>) item;
             if (map.size() == 0)
                 return null;
-            update.with(QueryBuilder.putAll(fmeta.getColumnName(), map));
+            update.with(QueryBuilder.putAll(fmeta.getColumnName(), QueryBuilder.bindMarker()));
+            values.add(map);
         } else if (fmeta.getType() == Set.class) {
-            update.with(QueryBuilder.add(fmeta.getColumnName(), item));
+            update.with(QueryBuilder.addAll(fmeta.getColumnName(), QueryBuilder.bindMarker()));
+            values.add(Collections.singleton(item));
         } else if (fmeta.getType() == List.class) {
-            update.with(QueryBuilder.append(fmeta.getColumnName(), item));
+            update.with(QueryBuilder.appendAll(fmeta.getColumnName(), QueryBuilder.bindMarker()));
+            values.add(Collections.singletonList(item));
         }
-        applyOptions(options, update, null);
-        return prepareUpdate(id, emeta, update, session);
+        return prepareUpdate(id, emeta, update, values, options, session);
     }
 
     public static BoundStatement preparePrependItemToList(Object id, Class<?> clazz, String propertyName, Object item, WriteOptions options, String keyspace, Session session) {
         EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
         EntityFieldMetaData fmeta = emeta.getFieldMetadata(propertyName);
         Update update = QueryBuilder.update(keyspace, emeta.getTableName());
+        List<Object> values = new ArrayList<Object>(1);
 
         if (item instanceof List<?> && fmeta.getType() == List.class) {
             List<?> list = (List<?>) item;
             if (list.size() == 0)
                 return null;
-            update.with(QueryBuilder.prependAll(fmeta.getColumnName(), list));
+            update.with(QueryBuilder.prependAll(fmeta.getColumnName(), QueryBuilder.bindMarker()));
+            values.add(list);
         } else if (fmeta.getType() == List.class) {
-            update.with(QueryBuilder.prepend(fmeta.getColumnName(), item));
+            update.with(QueryBuilder.prependAll(fmeta.getColumnName(), QueryBuilder.bindMarker()));
+            values.add(Collections.singletonList(item));
         }
-        applyOptions(options, update, null);
-        return prepareUpdate(id, emeta, update, session);
+        return prepareUpdate(id, emeta, update, values, options, session);
     }
 
     public static BoundStatement prepareReplaceAt(Object id, Class<?> clazz, String propertyName, Object item, int idx, WriteOptions options, String keyspace, Session session) {
@@ -695,11 +1639,62 @@ public class MappingBuilder {
         EntityFieldMetaData fmeta = emeta.getFieldMetadata(propertyName);
         Update update = QueryBuilder.update(keyspace, emeta.getTableName());
 
+        List<Object> values = new ArrayList<Object>(1);
         if (fmeta.getType() == List.class) {
-            update.with(QueryBuilder.setIdx(fmeta.getColumnName(), idx, item));
+            // the index stays a literal, the driver has no marker for it
+            update.with(QueryBuilder.setIdx(fmeta.getColumnName(), idx, QueryBuilder.bindMarker()));
+            values.add(item);
+        }
+        return prepareUpdate(id, emeta, update, values, options, session);
+    }
+
+    /**
+     * Prepare BoundStatement to add the delta to a counter column,
+     * UPDATE ... SET c = c + ? WHERE pk = ?. Counters accept neither ttl nor
+     * timestamp, only consistency level and retry policy of the options apply.
+     */
+    public static BoundStatement prepareIncrement(Object id, Class<?> clazz, String propertyName, long delta, WriteOptions options, String keyspace, Session session) {
+        return prepareIncrement(id, clazz, new String[] { propertyName }, new long[] { delta }, options, keyspace, session);
+    }
+
+    /**
+     * Prepare BoundStatement to add the deltas to the counter columns of
+     * one row in a single UPDATE.
+     */
+    public static BoundStatement prepareIncrement(Object id, Class<?> clazz, String[] propertyNames, long[] deltas, WriteOptions options, String keyspace, Session session) {
+        EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
+        Update update = QueryBuilder.update(keyspace, emeta.getTableName());
+        List<Object> values = new ArrayList<Object>();
+        for (int i = 0; i < propertyNames.length; i++) {
+            EntityFieldMetaData fmeta = emeta.getFieldMetadata(propertyNames[i]);
+            if (fmeta == null || fmeta.getDataType() != DataType.Name.COUNTER) {
+                throw new IllegalArgumentException(clazz.getName() + "." + propertyNames[i] + " is not a counter column");
+            }
+            update.with(incr(fmeta.getColumnName(), QueryBuilder.bindMarker()));
+            values.add(deltas[i]);
+        }
+        List<String> pkCols = emeta.getPkColumns();
+        for (String col : pkCols) {
+            update.where(eq(col, QueryBuilder.bindMarker()));
+        }
+        values.addAll(emeta.getIdValues(id));
+
+        PreparedStatement ps = getOrPrepareStatement(session, update, update.getQueryString());
+        BoundStatement bs = ps.bind(values.toArray());
+        applyOptions(options, bs);
+        return bs;
+    }
+
+    /**
+     * Counter tables accept no INSERT and no SET of counter columns.
+     */
+    private static void checkNotCounter(EntityTypeMetadata entityMetadata) {
+        for (EntityFieldMetaData f : entityMetadata.getFields()) {
+            if (f.getDataType() == DataType.Name.COUNTER) {
+                throw new IllegalArgumentException(entityMetadata.getEntityClass().getName()
+                        + " has counter column " + f.getColumnName() + ", use increment() instead of save()");
+            }
         }
-        applyOptions(options, update, null);
-        return prepareUpdate(id, emeta, update, session);
     }
 
     /**
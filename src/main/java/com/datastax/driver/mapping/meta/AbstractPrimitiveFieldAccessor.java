@@ -0,0 +1,73 @@
+/*
+ *      Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.meta;
+
+/**
+ * Base of the primitive accessors which implement only the methods of their
+ * own primitive type. The other methods go through get() and set().
+ */
+public abstract class AbstractPrimitiveFieldAccessor implements PrimitiveFieldAccessor {
+
+	@Override
+	public int getInt(Object target) {
+		return ((Number) get(target)).intValue();
+	}
+
+	@Override
+	public void setInt(Object target, int value) {
+		set(target, value);
+	}
+
+	@Override
+	public long getLong(Object target) {
+		return ((Number) get(target)).longValue();
+	}
+
+	@Override
+	public void setLong(Object target, long value) {
+		set(target, value);
+	}
+
+	@Override
+	public double getDouble(Object target) {
+		return ((Number) get(target)).doubleValue();
+	}
+
+	@Override
+	public void setDouble(Object target, double value) {
+		set(target, value);
+	}
+
+	@Override
+	public float getFloat(Object target) {
+		return ((Number) get(target)).floatValue();
+	}
+
+	@Override
+	public void setFloat(Object target, float value) {
+		set(target, value);
+	}
+
+	@Override
+	public boolean getBoolean(Object target) {
+		return ((Boolean) get(target)).booleanValue();
+	}
+
+	@Override
+	public void setBoolean(Object target, boolean value) {
+		set(target, value);
+	}
+}
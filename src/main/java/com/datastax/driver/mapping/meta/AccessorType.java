@@ -0,0 +1,41 @@
+/*
+ *      Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.meta;
+
+/**
+ * Strategy used to access entity properties.
+ */
+public enum AccessorType {
+
+	/** java.lang.reflect.Method invocation of public getter and setter. */
+	REFLECTION,
+
+	/** MethodHandles bound to public getter and setter. Default. */
+	METHOD_HANDLE,
+
+	/**
+	 * Lambdas spun by LambdaMetafactory calling public getter and setter.
+	 * Falls back to METHOD_HANDLE if the lambda can't be created, e.g. the
+	 * entity class is not visible from the class loader of the mapper.
+	 */
+	LAMBDA,
+
+	/**
+	 * Direct access to the fields. Fields without getter and setter are
+	 * persisted as well, static and final fields are skipped.
+	 */
+	FIELD
+}
@@ -0,0 +1,139 @@
+/*
+ *      Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.meta;
+
+import java.lang.reflect.Field;
+
+/**
+ * Access property directly through the field, getter and setter are not
+ * required.
+ */
+public class DirectFieldAccessor implements PrimitiveFieldAccessor {
+	private final Field field;
+
+	public DirectFieldAccessor(Field field) {
+		field.setAccessible(true);
+		this.field = field;
+	}
+
+	@Override
+	public Object get(Object target) {
+		try {
+			return field.get(target);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Can't get field " + field.getName(), e);
+		}
+	}
+
+	@Override
+	public void set(Object target, Object value) {
+		try {
+			field.set(target, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Can't set field " + field.getName(), e);
+		}
+	}
+
+	@Override
+	public int getInt(Object target) {
+		try {
+			return field.getInt(target);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Can't get field " + field.getName(), e);
+		}
+	}
+
+	@Override
+	public void setInt(Object target, int value) {
+		try {
+			field.setInt(target, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Can't set field " + field.getName(), e);
+		}
+	}
+
+	@Override
+	public long getLong(Object target) {
+		try {
+			return field.getLong(target);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Can't get field " + field.getName(), e);
+		}
+	}
+
+	@Override
+	public void setLong(Object target, long value) {
+		try {
+			field.setLong(target, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Can't set field " + field.getName(), e);
+		}
+	}
+
+	@Override
+	public double getDouble(Object target) {
+		try {
+			return field.getDouble(target);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Can't get field " + field.getName(), e);
+		}
+	}
+
+	@Override
+	public void setDouble(Object target, double value) {
+		try {
+			field.setDouble(target, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Can't set field " + field.getName(), e);
+		}
+	}
+
+	@Override
+	public float getFloat(Object target) {
+		try {
+			return field.getFloat(target);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Can't get field " + field.getName(), e);
+		}
+	}
+
+	@Override
+	public void setFloat(Object target, float value) {
+		try {
+			field.setFloat(target, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Can't set field " + field.getName(), e);
+		}
+	}
+
+	@Override
+	public boolean getBoolean(Object target) {
+		try {
+			return field.getBoolean(target);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Can't get field " + field.getName(), e);
+		}
+	}
+
+	@Override
+	public void setBoolean(Object target, boolean value) {
+		try {
+			field.setBoolean(target, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Can't set field " + field.getName(), e);
+		}
+	}
+}
@@ -17,21 +17,25 @@ package com.datastax.driver.mapping.meta;
 
 import java.lang.reflect.Field; 
 import java.lang.reflect.Method;
-import java.util.logging.Logger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.datastax.driver.core.DataType;
 import com.datastax.driver.core.DataType.Name;
+import com.datastax.driver.core.TypeCodec;
 
 /**
  * This class is a field meta information of the entity.
  */
 public class EntityFieldMetaData {
-	private static final Logger log = Logger.getLogger(EntityFieldMetaData.class.getName());
-	private Field field;
-	private Method getter;
-	private Method setter;
+	private String name;
+	private Class<?> type;
+	private FieldAccessor accessor;
+	private PrimitiveFieldAccessor primitiveAccessor;
 	private String genericDef;
+	private Class<?>[] genericTypes;
 	private Class<?> collectionType;
+	private final ConcurrentMap<DataType, TypeCodec<Object>> codecs = new ConcurrentHashMap<DataType, TypeCodec<Object>>();
 
 	private Name dataType;
 	private String columnName;
@@ -41,15 +45,26 @@ public class EntityFieldMetaData {
 	private boolean autoGenerate;
 	
 	public EntityFieldMetaData(Field field, DataType.Name dataType, Method getter, Method setter, String columnName) {
-		this.field = field;
-		this.getter = getter;
-		this.setter = setter;
+		this(field, dataType, EnumFieldAccessor.wrap(field.getType(), new ReflectionFieldAccessor(getter, setter)), columnName);
+	}
+
+	public EntityFieldMetaData(Field field, DataType.Name dataType, FieldAccessor accessor, String columnName) {
+		this(field.getName(), field.getType(), dataType, accessor, columnName);
+	}
+
+	public EntityFieldMetaData(String name, Class<?> type, DataType.Name dataType, FieldAccessor accessor, String columnName) {
+		this.name = name;
+		this.type = type;
+		this.accessor = accessor;
+		if (type.isPrimitive() && accessor instanceof PrimitiveFieldAccessor) {
+			this.primitiveAccessor = (PrimitiveFieldAccessor) accessor;
+		}
 		this.dataType = dataType;
 		this.columnName = columnName;
 	}
 	
 	public Class<?> getType() {
-		return field.getType();
+		return type;
 	}
 	
 	public DataType.Name getDataType() {
@@ -57,42 +72,148 @@ public class EntityFieldMetaData {
 	}
 	
 	public String getName() {
-		return field.getName();
+		return name;
 	}
 	
 	/**
-	 * get the value from given object using reflection on public getter method
+	 * get the value from given object using the field accessor
 	 * @param entity - object instance the value will be retrieved from
+	 * @throws IllegalStateException if the getter fails
 	 */	
 	public <E> Object getValue(E entity) {
-		try {
-			Object ret = getter.invoke(entity, new Object[]{});
-			if (field.getType().isEnum()) {
-				return ((Enum<?>)ret).name();
-			}
-			return ret;			
-		} catch (Exception e) {
-			log.info("Can't get value for obj:"+entity+", method:"+getter.getName());
-		}
-		return null;
+		return accessor.get(entity);
 	}
 	
 	/**
-	 * set the value on given object using reflection on public setter method
+	 * set the value on given object using the field accessor
 	 * @param entity - object instance the value will be set to
 	 * @param value
+	 * @throws RuntimeException if the setter fails or the value does not fit
+	 *         the property, e.g. an unknown constant of an enum property
 	 */
 	public <E> void setValue(E entity, Object value) {
-		try {
-			if (field.getType().isEnum()) {
-				Object eval = Enum.valueOf((Class<Enum>)field.getType(), (String)value);
-				setter.invoke(entity, new Object[]{eval});
-			} else {
-			    setter.invoke(entity, new Object[]{value});
-			}
-		} catch (Exception e) {
-			log.info("Can't set value for obj:"+entity+", method:"+setter.getName());
+		accessor.set(entity, value);
+	}
+
+	/**
+	 * indicates if the property has a primitive type
+	 */
+	public boolean isPrimitive() {
+		return type.isPrimitive();
+	}
+
+	/**
+	 * get the int value of the primitive property without boxing
+	 */
+	public <E> int getInt(E entity) {
+		if (primitiveAccessor == null) {
+			Object value = getValue(entity);
+			return value == null ? 0 : ((Number) value).intValue();
+		}
+		return primitiveAccessor.getInt(entity);
+	}
+
+	/**
+	 * set the int value of the primitive property without boxing
+	 */
+	public <E> void setInt(E entity, int value) {
+		if (primitiveAccessor == null) {
+			setValue(entity, value);
+			return;
+		}
+		primitiveAccessor.setInt(entity, value);
+	}
+
+	/**
+	 * get the long value of the primitive property without boxing
+	 */
+	public <E> long getLong(E entity) {
+		if (primitiveAccessor == null) {
+			Object value = getValue(entity);
+			return value == null ? 0L : ((Number) value).longValue();
+		}
+		return primitiveAccessor.getLong(entity);
+	}
+
+	/**
+	 * set the long value of the primitive property without boxing
+	 */
+	public <E> void setLong(E entity, long value) {
+		if (primitiveAccessor == null) {
+			setValue(entity, value);
+			return;
 		}
+		primitiveAccessor.setLong(entity, value);
+	}
+
+	/**
+	 * get the double value of the primitive property without boxing
+	 */
+	public <E> double getDouble(E entity) {
+		if (primitiveAccessor == null) {
+			Object value = getValue(entity);
+			return value == null ? 0d : ((Number) value).doubleValue();
+		}
+		return primitiveAccessor.getDouble(entity);
+	}
+
+	/**
+	 * set the double value of the primitive property without boxing
+	 */
+	public <E> void setDouble(E entity, double value) {
+		if (primitiveAccessor == null) {
+			setValue(entity, value);
+			return;
+		}
+		primitiveAccessor.setDouble(entity, value);
+	}
+
+	/**
+	 * get the float value of the primitive property without boxing
+	 */
+	public <E> float getFloat(E entity) {
+		if (primitiveAccessor == null) {
+			Object value = getValue(entity);
+			return value == null ? 0f : ((Number) value).floatValue();
+		}
+		return primitiveAccessor.getFloat(entity);
+	}
+
+	/**
+	 * set the float value of the primitive property without boxing
+	 */
+	public <E> void setFloat(E entity, float value) {
+		if (primitiveAccessor == null) {
+			setValue(entity, value);
+			return;
+		}
+		primitiveAccessor.setFloat(entity, value);
+	}
+
+	/**
+	 * get the boolean value of the primitive property without boxing
+	 */
+	public <E> boolean getBoolean(E entity) {
+		if (primitiveAccessor == null) {
+			Object value = getValue(entity);
+			return value == null ? false : ((Boolean) value).booleanValue();
+		}
+		return primitiveAccessor.getBoolean(entity);
+	}
+
+	/**
+	 * set the boolean value of the primitive property without boxing
+	 */
+	public <E> void setBoolean(E entity, boolean value) {
+		if (primitiveAccessor == null) {
+			setValue(entity, value);
+			return;
+		}
+		primitiveAccessor.setBoolean(entity, value);
+	}
+
+	public FieldAccessor getAccessor() {
+		return accessor;
 	}
 
 	/**
@@ -113,6 +234,20 @@ public class EntityFieldMetaData {
 		this.genericDef = genericDef;
 	}
 	
+	/**
+	 * element classes of the collection from the generic signature of the
+	 * field, an element is null when it is not a class.
+	 * @return element classes or null for the raw or not a collection
+	 */
+	public Class<?>[] getGenericTypes() {
+		return genericTypes;
+	}
+
+	public void setGenericTypes(Class<?>[] genericTypes) {
+		this.genericTypes = genericTypes;
+		codecs.clear();
+	}
+
 	/**
 	 * indicates if the field has generic modifier
 	 * 
@@ -151,6 +286,15 @@ public class EntityFieldMetaData {
 
 	public void setCollectionType(Class<?> collectionType) {
 		this.collectionType = collectionType;
+		codecs.clear();
+	}
+
+	/**
+	 * codecs reading the collection column into this field by the type of
+	 * the column, they are dropped with the metadata.
+	 */
+	public ConcurrentMap<DataType, TypeCodec<Object>> getCodecs() {
+		return codecs;
 	}
 	
 	public boolean hasCollectionType() {
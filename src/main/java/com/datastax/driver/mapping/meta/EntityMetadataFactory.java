@@ -0,0 +1,26 @@
+/*
+ *      Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.meta;
+
+/**
+ * Creates EntityTypeMetadata without reflection. Implementations are
+ * generated at compile time by EntityMetadataProcessor and picked up by
+ * EntityTypeParser.
+ */
+public interface EntityMetadataFactory {
+
+	EntityTypeMetadata create();
+}
@@ -40,6 +40,10 @@ public class EntityTypeMetadata {
 	private List<String> properties = new ArrayList<String>();
 	// default time to leave
 	private int ttl = -100;
+	// entities may be kept in the entity cache of MappingSession
+	private boolean cacheable;
+	// null properties are left unset on save
+	private boolean skipNulls;
 	// true if synchronized with Cassandra
 	private List<String> syncedKeyspaces = new ArrayList<String>();
 
@@ -142,21 +146,33 @@ public class EntityTypeMetadata {
 	}
 
 	/**
-	 * retrieve values from PK
+	 * columns of the partition key, the first of the primary key columns
+	 * unless the entity has composite partition key.
+	 */
+	public List<String> getPartitionKeyColumns() {
+		List<String> columns = getPkColumns();
+		if (primaryKeyMetadata.hasPartitionKey()) {
+			return columns.subList(0, primaryKeyMetadata.getPartitionKey().getFields().size());
+		}
+		return columns.subList(0, 1);
+	}
+
+	/**
+	 * retrieve values from PK, values of a null key object are null
 	 */	
 	public List<Object> getIdValues(Object id) {
 		List<Object> vals = new ArrayList<Object>();
 		if (primaryKeyMetadata.hasPartitionKey()) {
 			PrimaryKeyMetadata pk = primaryKeyMetadata.getPartitionKey();
-			Object partitionKey = pk.getOwnField().getValue(id);
+			Object partitionKey = id == null ? null : pk.getOwnField().getValue(id);
 			for (EntityFieldMetaData f: pk.getFields()) {
-				vals.add(f.getValue(partitionKey));
+				vals.add(partitionKey == null ? null : f.getValue(partitionKey));
 			}
 		} 
 		
 		if (primaryKeyMetadata.isCompound()) {
 			for (EntityFieldMetaData f: primaryKeyMetadata.getFields()) {
-				vals.add(f.getValue(id));
+				vals.add(id == null ? null : f.getValue(id));
 			}			
 		} else {
 			vals.add(id);
@@ -231,4 +247,20 @@ public class EntityTypeMetadata {
 	public void setTtl(int ttl) {
 		this.ttl = ttl;
 	}	
+
+	public boolean isCacheable() {
+		return cacheable;
+	}
+
+	public void setCacheable(boolean cacheable) {
+		this.cacheable = cacheable;
+	}
+
+	public boolean isSkipNulls() {
+		return skipNulls;
+	}
+
+	public void setSkipNulls(boolean skipNulls) {
+		this.skipNulls = skipNulls;
+	}
 }
@@ -0,0 +1,58 @@
+/*
+ *      Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.meta;
+
+/**
+ * Converts enum property to its name and back. Enum class is resolved once
+ * for the field.
+ */
+public class EnumFieldAccessor implements FieldAccessor {
+	private final FieldAccessor delegate;
+	@SuppressWarnings("rawtypes")
+	private final Class<? extends Enum> enumType;
+
+	@SuppressWarnings("rawtypes")
+	public EnumFieldAccessor(FieldAccessor delegate, Class<? extends Enum> enumType) {
+		this.delegate = delegate;
+		this.enumType = enumType;
+	}
+
+	/**
+	 * Wrap the accessor if the property is an enum.
+	 */
+	@SuppressWarnings("unchecked")
+	public static FieldAccessor wrap(Class<?> type, FieldAccessor accessor) {
+		if (type.isEnum()) {
+			return new EnumFieldAccessor(accessor, (Class<? extends Enum<?>>) type);
+		}
+		return accessor;
+	}
+
+	@Override
+	public Object get(Object target) {
+		Object value = delegate.get(target);
+		return value == null ? null : ((Enum<?>) value).name();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void set(Object target, Object value) {
+		if (value instanceof String) {
+			value = Enum.valueOf(enumType, (String) value);
+		}
+		delegate.set(target, value);
+	}
+}
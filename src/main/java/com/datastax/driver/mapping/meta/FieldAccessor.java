@@ -0,0 +1,35 @@
+/*
+ *      Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.meta;
+
+/**
+ * Reads and writes the value of an entity property. Implementation is chosen
+ * once per field by EntityTypeParser, see {@link AccessorType}.
+ */
+public interface FieldAccessor {
+
+	/**
+	 * @param target object instance the value will be retrieved from
+	 * @return property value
+	 */
+	Object get(Object target);
+
+	/**
+	 * @param target object instance the value will be set to
+	 * @param value property value
+	 */
+	void set(Object target, Object value);
+}
@@ -0,0 +1,152 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.meta;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import com.google.common.primitives.Primitives;
+
+/**
+ * Access property through public getter and setter called from classes
+ * spun by LambdaMetafactory, which the JIT inlines like direct calls. The
+ * int, long and double properties are read and written without boxing,
+ * float and boolean go through get() and set().
+ */
+public class LambdaFieldAccessor extends AbstractPrimitiveFieldAccessor {
+	private final Function<Object, Object>   getter;
+	private final BiConsumer<Object, Object> setter;
+	private ToIntFunction<Object>            intGetter;
+	private ObjIntConsumer<Object>           intSetter;
+	private ToLongFunction<Object>           longGetter;
+	private ObjLongConsumer<Object>          longSetter;
+	private ToDoubleFunction<Object>         doubleGetter;
+	private ObjDoubleConsumer<Object>        doubleSetter;
+
+	/**
+	 * @throws ReflectiveOperationException if the lambdas can't be created,
+	 *             e.g. getter or setter is not accessible or the entity class
+	 *             is not visible from this class loader
+	 */
+	@SuppressWarnings("unchecked")
+	public LambdaFieldAccessor(Method getter, Method setter) throws ReflectiveOperationException {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		MethodHandle get = lookup.unreflect(getter);
+		MethodHandle set = lookup.unreflect(setter);
+		Class<?> owner = getter.getDeclaringClass();
+		Class<?> getType = getter.getReturnType();
+		Class<?> setType = setter.getParameterTypes()[0];
+
+		this.getter = (Function<Object, Object>) spin(lookup, Function.class, "apply", MethodType.methodType(Object.class, Object.class), get,
+				MethodType.methodType(Primitives.wrap(getType), owner));
+		this.setter = (BiConsumer<Object, Object>) spin(lookup, BiConsumer.class, "accept", MethodType.methodType(void.class, Object.class, Object.class), set,
+				MethodType.methodType(void.class, setter.getDeclaringClass(), Primitives.wrap(setType)));
+
+		if (getType == int.class && setType == int.class) {
+			intGetter = (ToIntFunction<Object>) spin(lookup, ToIntFunction.class, "applyAsInt", MethodType.methodType(int.class, Object.class), get,
+					MethodType.methodType(int.class, owner));
+			intSetter = (ObjIntConsumer<Object>) spin(lookup, ObjIntConsumer.class, "accept", MethodType.methodType(void.class, Object.class, int.class), set,
+					MethodType.methodType(void.class, setter.getDeclaringClass(), int.class));
+		} else if (getType == long.class && setType == long.class) {
+			longGetter = (ToLongFunction<Object>) spin(lookup, ToLongFunction.class, "applyAsLong", MethodType.methodType(long.class, Object.class), get,
+					MethodType.methodType(long.class, owner));
+			longSetter = (ObjLongConsumer<Object>) spin(lookup, ObjLongConsumer.class, "accept", MethodType.methodType(void.class, Object.class, long.class), set,
+					MethodType.methodType(void.class, setter.getDeclaringClass(), long.class));
+		} else if (getType == double.class && setType == double.class) {
+			doubleGetter = (ToDoubleFunction<Object>) spin(lookup, ToDoubleFunction.class, "applyAsDouble", MethodType.methodType(double.class, Object.class), get,
+					MethodType.methodType(double.class, owner));
+			doubleSetter = (ObjDoubleConsumer<Object>) spin(lookup, ObjDoubleConsumer.class, "accept", MethodType.methodType(void.class, Object.class, double.class), set,
+					MethodType.methodType(void.class, setter.getDeclaringClass(), double.class));
+		}
+	}
+
+	/** instance of the functional interface calling the method handle */
+	private static Object spin(MethodHandles.Lookup lookup, Class<?> iface, String name, MethodType erased, MethodHandle impl, MethodType instantiated)
+			throws ReflectiveOperationException {
+		try {
+			CallSite site = LambdaMetafactory.metafactory(lookup, name, MethodType.methodType(iface), erased, impl, instantiated);
+			return site.getTarget().invoke();
+		} catch (ReflectiveOperationException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new ReflectiveOperationException("Can't create " + iface.getSimpleName() + " for " + impl, e);
+		}
+	}
+
+	@Override
+	public Object get(Object target) {
+		return getter.apply(target);
+	}
+
+	@Override
+	public void set(Object target, Object value) {
+		setter.accept(target, value);
+	}
+
+	@Override
+	public int getInt(Object target) {
+		return intGetter == null ? super.getInt(target) : intGetter.applyAsInt(target);
+	}
+
+	@Override
+	public void setInt(Object target, int value) {
+		if (intSetter == null) {
+			super.setInt(target, value);
+		} else {
+			intSetter.accept(target, value);
+		}
+	}
+
+	@Override
+	public long getLong(Object target) {
+		return longGetter == null ? super.getLong(target) : longGetter.applyAsLong(target);
+	}
+
+	@Override
+	public void setLong(Object target, long value) {
+		if (longSetter == null) {
+			super.setLong(target, value);
+		} else {
+			longSetter.accept(target, value);
+		}
+	}
+
+	@Override
+	public double getDouble(Object target) {
+		return doubleGetter == null ? super.getDouble(target) : doubleGetter.applyAsDouble(target);
+	}
+
+	@Override
+	public void setDouble(Object target, double value) {
+		if (doubleSetter == null) {
+			super.setDouble(target, value);
+		} else {
+			doubleSetter.accept(target, value);
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ *      Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.meta;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+import com.google.common.primitives.Primitives;
+
+/**
+ * Access property through public getter and setter using MethodHandles.
+ * Access checks are done once when the handles are created.
+ */
+public class MethodHandleFieldAccessor implements PrimitiveFieldAccessor {
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+	// handles of the property's own type used by the primitive methods
+	private final MethodHandle typedGetter;
+	private final MethodHandle typedSetter;
+
+	/**
+	 * @throws IllegalAccessException if getter or setter is not accessible
+	 */
+	public MethodHandleFieldAccessor(Method getter, Method setter) throws IllegalAccessException {
+		MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+		MethodHandle get = lookup.unreflect(getter);
+		MethodHandle set = lookup.unreflect(setter);
+		this.getter = get.asType(GETTER_TYPE);
+		this.setter = set.asType(SETTER_TYPE);
+		// unboxes a wrapper getter of the primitive field, e.g. Integer getAge()
+		Class<?> type = Primitives.unwrap(getter.getReturnType());
+		this.typedGetter = get.asType(MethodType.methodType(type, Object.class));
+		this.typedSetter = set.asType(MethodType.methodType(void.class, Object.class, type));
+	}
+
+	@Override
+	public Object get(Object target) {
+		try {
+			return getter.invokeExact(target);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public void set(Object target, Object value) {
+		try {
+			setter.invokeExact(target, value);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public int getInt(Object target) {
+		try {
+			return (int) typedGetter.invokeExact(target);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public void setInt(Object target, int value) {
+		try {
+			typedSetter.invokeExact(target, value);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public long getLong(Object target) {
+		try {
+			return (long) typedGetter.invokeExact(target);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public void setLong(Object target, long value) {
+		try {
+			typedSetter.invokeExact(target, value);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public double getDouble(Object target) {
+		try {
+			return (double) typedGetter.invokeExact(target);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public void setDouble(Object target, double value) {
+		try {
+			typedSetter.invokeExact(target, value);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public float getFloat(Object target) {
+		try {
+			return (float) typedGetter.invokeExact(target);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public void setFloat(Object target, float value) {
+		try {
+			typedSetter.invokeExact(target, value);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public boolean getBoolean(Object target) {
+		try {
+			return (boolean) typedGetter.invokeExact(target);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public void setBoolean(Object target, boolean value) {
+		try {
+			typedSetter.invokeExact(target, value);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
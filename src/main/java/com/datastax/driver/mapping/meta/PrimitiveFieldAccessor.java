@@ -0,0 +1,44 @@
+/*
+ *      Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.meta;
+
+/**
+ * Accessor of a primitive property which reads and writes the value
+ * without boxing. Only the methods of the property's own primitive type
+ * may be called.
+ */
+public interface PrimitiveFieldAccessor extends FieldAccessor {
+
+	int getInt(Object target);
+
+	void setInt(Object target, int value);
+
+	long getLong(Object target);
+
+	void setLong(Object target, long value);
+
+	double getDouble(Object target);
+
+	void setDouble(Object target, double value);
+
+	float getFloat(Object target);
+
+	void setFloat(Object target, float value);
+
+	boolean getBoolean(Object target);
+
+	void setBoolean(Object target, boolean value);
+}
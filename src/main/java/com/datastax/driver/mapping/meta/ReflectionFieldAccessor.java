@@ -0,0 +1,49 @@
+/*
+ *      Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.meta;
+
+import java.lang.reflect.Method;
+
+/**
+ * Access property through public getter and setter using reflection.
+ */
+public class ReflectionFieldAccessor implements FieldAccessor {
+	private final Method getter;
+	private final Method setter;
+
+	public ReflectionFieldAccessor(Method getter, Method setter) {
+		this.getter = getter;
+		this.setter = setter;
+	}
+
+	@Override
+	public Object get(Object target) {
+		try {
+			return getter.invoke(target);
+		} catch (Exception e) {
+			throw new IllegalStateException("Can't invoke " + getter.getName(), e);
+		}
+	}
+
+	@Override
+	public void set(Object target, Object value) {
+		try {
+			setter.invoke(target, value);
+		} catch (Exception e) {
+			throw new IllegalStateException("Can't invoke " + setter.getName(), e);
+		}
+	}
+}
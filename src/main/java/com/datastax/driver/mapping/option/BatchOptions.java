@@ -15,12 +15,19 @@
  */
 package com.datastax.driver.mapping.option;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.policies.RetryPolicy;
 
 public class BatchOptions {
 	private ConsistencyLevel consistencyLevel;
 	private RetryPolicy retryPolicy;
+	private BatchStatement.Type type;
+	private Long defaultTimestamp;
+	private boolean groupByPartition;
+	private int maxStatements;
+	private long maxSize;
+	private int maxInFlight = 8;
 	
 	/**
 	 * @return the consistencyLevel
@@ -51,4 +58,102 @@ public class BatchOptions {
 		this.retryPolicy = retryPolicy;
 		return this;
 	}
+
+	/**
+	 * @return the type of the batch, null for the default
+	 */
+	public BatchStatement.Type getType() {
+		return type;
+	}
+
+	/**
+	 * @param type LOGGED, UNLOGGED or COUNTER. Defaults to UNLOGGED when
+	 *        grouped by partition and LOGGED otherwise.
+	 */
+	public BatchOptions setType(BatchStatement.Type type) {
+		this.type = type;
+		return this;
+	}
+
+	/**
+	 * @return the default timestamp in microseconds, null if not set
+	 */
+	public Long getDefaultTimestamp() {
+		return defaultTimestamp;
+	}
+
+	/**
+	 * Timestamp of the writes which have no USING TIMESTAMP of their own.
+	 * Requires native protocol v3.
+	 * 
+	 * @param defaultTimestamp timestamp in microseconds
+	 */
+	public BatchOptions setDefaultTimestamp(Long defaultTimestamp) {
+		this.defaultTimestamp = defaultTimestamp;
+		return this;
+	}
+
+	/**
+	 * @return true if statements are sent as one unlogged batch per partition
+	 */
+	public boolean isGroupByPartition() {
+		return groupByPartition;
+	}
+
+	/**
+	 * @param groupByPartition true to send the statements as one unlogged
+	 *        batch per partition, concurrently, instead of one logged batch
+	 */
+	public BatchOptions setGroupByPartition(boolean groupByPartition) {
+		this.groupByPartition = groupByPartition;
+		return this;
+	}
+
+	/**
+	 * @return maximum number of statements in a sub-batch, 0 if not limited
+	 */
+	public int getMaxStatements() {
+		return maxStatements;
+	}
+
+	/**
+	 * @param maxStatements maximum number of statements in a sub-batch, 0 if not limited
+	 */
+	public BatchOptions setMaxStatements(int maxStatements) {
+		this.maxStatements = maxStatements;
+		return this;
+	}
+
+	/**
+	 * @return maximum estimated size of a sub-batch in bytes, 0 if not limited
+	 */
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Keep it below batch_size_fail_threshold_in_kb of the cluster. A single
+	 * statement larger than the limit is sent alone.
+	 * 
+	 * @param maxSize maximum estimated size of a sub-batch in bytes, 0 if not limited
+	 */
+	public BatchOptions setMaxSize(long maxSize) {
+		this.maxSize = maxSize;
+		return this;
+	}
+
+	/**
+	 * @return maximum number of sub-batches sent concurrently
+	 */
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	/**
+	 * @param maxInFlight maximum number of sub-batches sent concurrently
+	 */
+	public BatchOptions setMaxInFlight(int maxInFlight) {
+		this.maxInFlight = maxInFlight;
+		return this;
+	}
 }
@@ -0,0 +1,80 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.option;
+
+import com.datastax.driver.core.BatchStatement;
+
+/**
+ * Options of the CounterAccumulator.
+ */
+public class CounterOptions {
+	private long flushIntervalMillis = 1000;
+	private int concurrencyLevel = 16;
+	private BatchOptions batchOptions = new BatchOptions()
+			.setType(BatchStatement.Type.COUNTER)
+			.setGroupByPartition(true)
+			.setMaxStatements(100);
+
+	/**
+	 * @return time in milliseconds between the periodic flushes, 0 if flushed
+	 *         explicitly only
+	 */
+	public long getFlushIntervalMillis() {
+		return flushIntervalMillis;
+	}
+
+	/**
+	 * @param flushIntervalMillis time in milliseconds between the periodic
+	 *        flushes, 0 to disable
+	 */
+	public CounterOptions setFlushIntervalMillis(long flushIntervalMillis) {
+		this.flushIntervalMillis = flushIntervalMillis;
+		return this;
+	}
+
+	/**
+	 * @return estimated number of threads adding deltas concurrently
+	 */
+	public int getConcurrencyLevel() {
+		return concurrencyLevel;
+	}
+
+	/**
+	 * @param concurrencyLevel estimated number of threads adding deltas
+	 *        concurrently, sizes the stripes of the delta map
+	 */
+	public CounterOptions setConcurrencyLevel(int concurrencyLevel) {
+		this.concurrencyLevel = concurrencyLevel;
+		return this;
+	}
+
+	/**
+	 * @return options of the flushed batches, by default counter batches
+	 *         grouped by partition of at most 100 updates
+	 */
+	public BatchOptions getBatchOptions() {
+		return batchOptions;
+	}
+
+	/**
+	 * @param batchOptions options of the flushed batches, the type must be
+	 *        COUNTER
+	 */
+	public CounterOptions setBatchOptions(BatchOptions batchOptions) {
+		this.batchOptions = batchOptions;
+		return this;
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.option;
+
+/**
+ * Options of the EntityLoader batching window.
+ */
+public class LoaderOptions {
+	private int maxBatchSize = 100;
+	private long maxDelayMillis = 2;
+	private ReadOptions readOptions = new ReadOptions().setGroupByPartition(true);
+
+	/**
+	 * @return number of ids which dispatch the batch before the delay is over
+	 */
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/**
+	 * @param maxBatchSize number of ids which dispatch the batch before the delay is over
+	 */
+	public LoaderOptions setMaxBatchSize(int maxBatchSize) {
+		this.maxBatchSize = maxBatchSize;
+		return this;
+	}
+
+	/**
+	 * @return time in milliseconds the first id of a batch waits for the others
+	 */
+	public long getMaxDelayMillis() {
+		return maxDelayMillis;
+	}
+
+	/**
+	 * @param maxDelayMillis time in milliseconds the first id of a batch waits for the others
+	 */
+	public LoaderOptions setMaxDelayMillis(long maxDelayMillis) {
+		this.maxDelayMillis = maxDelayMillis;
+		return this;
+	}
+
+	/**
+	 * @return options of the batch reads, ids of the same partition are
+	 *         grouped into IN queries by default
+	 */
+	public ReadOptions getReadOptions() {
+		return readOptions;
+	}
+
+	/**
+	 * @param readOptions options of the batch reads
+	 */
+	public LoaderOptions setReadOptions(ReadOptions readOptions) {
+		this.readOptions = readOptions;
+		return this;
+	}
+}
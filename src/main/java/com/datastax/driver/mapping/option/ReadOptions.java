@@ -25,6 +25,8 @@ import com.datastax.driver.core.policies.RetryPolicy;
 public class ReadOptions {
 	private ConsistencyLevel consistencyLevel;
 	private RetryPolicy retryPolicy;
+	private int maxInFlight = 32;
+	private boolean groupByPartition;
 	
 	/**
 	 * @return the consistencyLevel
@@ -55,4 +57,35 @@ public class ReadOptions {
 		this.retryPolicy = retryPolicy;
 		return this;
 	}
+
+	/**
+	 * @return the maximum number of concurrent requests of getAll
+	 */
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	/**
+	 * @param maxInFlight the maximum number of concurrent requests of getAll
+	 */
+	public ReadOptions setMaxInFlight(int maxInFlight) {
+		this.maxInFlight = maxInFlight;
+		return this;
+	}
+
+	/**
+	 * @return true if getAll loads the ids sharing a partition with one query
+	 */
+	public boolean isGroupByPartition() {
+		return groupByPartition;
+	}
+
+	/**
+	 * @param groupByPartition if true getAll loads the ids which differ only
+	 *        in the last clustering column with one IN query
+	 */
+	public ReadOptions setGroupByPartition(boolean groupByPartition) {
+		this.groupByPartition = groupByPartition;
+		return this;
+	}
 }
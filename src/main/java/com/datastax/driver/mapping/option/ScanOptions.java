@@ -0,0 +1,104 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.option;
+
+import com.datastax.driver.core.ConsistencyLevel;
+
+/**
+ * Options of the token range scan of the entity table.
+ */
+public class ScanOptions {
+	private ConsistencyLevel consistencyLevel;
+	private int splits = 1;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	private int maxRetries = 3;
+	private int fetchSize = 1000;
+
+	/**
+	 * @return the consistencyLevel
+	 */
+	public ConsistencyLevel getConsistencyLevel() {
+		return consistencyLevel;
+	}
+
+	/**
+	 * @param consistencyLevel the consistencyLevel to set
+	 */
+	public ScanOptions setConsistencyLevel(ConsistencyLevel consistencyLevel) {
+		this.consistencyLevel = consistencyLevel;
+		return this;
+	}
+
+	/**
+	 * @return number of sub-ranges each token range of the ring is split into
+	 */
+	public int getSplits() {
+		return splits;
+	}
+
+	/**
+	 * @param splits number of sub-ranges each token range of the ring is split into
+	 */
+	public ScanOptions setSplits(int splits) {
+		this.splits = splits;
+		return this;
+	}
+
+	/**
+	 * @return number of sub-ranges scanned concurrently
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * @param parallelism number of sub-ranges scanned concurrently
+	 */
+	public ScanOptions setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * @return number of retries of a failed page before the scan fails
+	 */
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+
+	/**
+	 * @param maxRetries number of retries of a failed page before the scan fails
+	 */
+	public ScanOptions setMaxRetries(int maxRetries) {
+		this.maxRetries = maxRetries;
+		return this;
+	}
+
+	/**
+	 * @return the page size of the sub-range queries
+	 */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * @param fetchSize the page size of the sub-range queries
+	 */
+	public ScanOptions setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+		return this;
+	}
+}
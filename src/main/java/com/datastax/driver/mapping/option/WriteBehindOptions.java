@@ -0,0 +1,90 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.option;
+
+/**
+ * Options of the WriteBehind buffer.
+ */
+public class WriteBehindOptions {
+	private int maxPending = 1000;
+	private long flushIntervalMillis = 1000;
+	private WriteOptions writeOptions;
+	private BatchOptions batchOptions;
+
+	/**
+	 * @return number of buffered entities which trigger a flush
+	 */
+	public int getMaxPending() {
+		return maxPending;
+	}
+
+	/**
+	 * @param maxPending number of buffered entities which trigger a flush
+	 */
+	public WriteBehindOptions setMaxPending(int maxPending) {
+		this.maxPending = maxPending;
+		return this;
+	}
+
+	/**
+	 * @return time in milliseconds between the periodic flushes, 0 if flushed
+	 *         by size and explicitly only
+	 */
+	public long getFlushIntervalMillis() {
+		return flushIntervalMillis;
+	}
+
+	/**
+	 * @param flushIntervalMillis time in milliseconds between the periodic
+	 *        flushes, 0 to disable
+	 */
+	public WriteBehindOptions setFlushIntervalMillis(long flushIntervalMillis) {
+		this.flushIntervalMillis = flushIntervalMillis;
+		return this;
+	}
+
+	/**
+	 * @return options of each save or delete, null for defaults
+	 */
+	public WriteOptions getWriteOptions() {
+		return writeOptions;
+	}
+
+	/**
+	 * @param writeOptions options of each save or delete
+	 */
+	public WriteBehindOptions setWriteOptions(WriteOptions writeOptions) {
+		this.writeOptions = writeOptions;
+		return this;
+	}
+
+	/**
+	 * @return options of the batch a flush is sent as, null if the writes
+	 *         are pipelined one statement per entity
+	 */
+	public BatchOptions getBatchOptions() {
+		return batchOptions;
+	}
+
+	/**
+	 * @param batchOptions send a flush as a batch with these options, e.g.
+	 *        setGroupByPartition(true), instead of pipelined statements
+	 */
+	public WriteBehindOptions setBatchOptions(BatchOptions batchOptions) {
+		this.batchOptions = batchOptions;
+		return this;
+	}
+}
@@ -27,6 +27,8 @@ public class WriteOptions {
 	private long timestamp = -1L;
 	private ConsistencyLevel consistencyLevel;
 	private RetryPolicy retryPolicy;
+	private int maxInFlight = 32;
+	private Boolean skipNulls;
 	
 	/**
 	 * @return the consistencyLevel
@@ -90,5 +92,39 @@ public class WriteOptions {
 		return this;
 	}
 
+	/**
+	 * @return the maximum number of concurrent requests of saveAll and deleteAll
+	 */
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	/**
+	 * @param maxInFlight the maximum number of concurrent requests of saveAll and deleteAll
+	 */
+	public WriteOptions setMaxInFlight(int maxInFlight) {
+		this.maxInFlight = maxInFlight;
+		return this;
+	}
+
+	/**
+	 * @return true to leave null properties unset, null for the @SkipNulls
+	 *         default of the entity
+	 */
+	public Boolean getSkipNulls() {
+		return skipNulls;
+	}
+
+	/**
+	 * @param skipNulls true to leave null properties unset instead of
+	 *        writing null, which creates tombstones. Requires protocol v4,
+	 *        with older protocol versions nulls are still written and a
+	 *        warning is logged once per entity.
+	 */
+	public WriteOptions setSkipNulls(Boolean skipNulls) {
+		this.skipNulls = skipNulls;
+		return this;
+	}
+
 	
 }
@@ -0,0 +1,417 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.Version;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+import com.datastax.driver.mapping.EntityTypeParser;
+import com.datastax.driver.mapping.annotation.CollectionType;
+import com.datastax.driver.mapping.annotation.SkipNulls;
+import com.datastax.driver.mapping.annotation.Static;
+import com.datastax.driver.mapping.annotation.TableProperties;
+import com.datastax.driver.mapping.annotation.TableProperty;
+import com.datastax.driver.mapping.annotation.Ttl;
+
+/**
+ * Optional annotation processor which generates EntityMetadataFactory for
+ * each class annotated with @Table or @Entity. Generated factory builds
+ * EntityTypeMetadata with plain getter and setter calls and is picked up by
+ * EntityTypeParser instead of parsing the entity with reflection. Entities
+ * the processor can't handle are skipped and parsed at runtime as before.
+ * Rows are still mapped by EntityRowMapper and bound by MappingBuilder, with
+ * the generated accessors; no mapper or binder class is generated.
+ * <p>
+ * Registered in META-INF/services, so javac runs it whenever the library is
+ * on the compile classpath, unless annotation processing is disabled with
+ * -proc:none.
+ */
+@SupportedAnnotationTypes({ "javax.persistence.Table", "javax.persistence.Entity" })
+public class EntityMetadataProcessor extends AbstractProcessor {
+
+    private static final String BUILDER  = "com.datastax.driver.mapping.EntityMetadataBuilder";
+    private static final String FACTORY  = "com.datastax.driver.mapping.meta.EntityMetadataFactory";
+    private static final String METADATA = "com.datastax.driver.mapping.meta.EntityTypeMetadata";
+    private static final String ACCESSOR = "com.datastax.driver.mapping.meta.FieldAccessor";
+    private static final String PRIMITIVE_ACCESSOR = "com.datastax.driver.mapping.meta.AbstractPrimitiveFieldAccessor";
+
+    private Elements elements;
+    private Types    types;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+
+        Set<TypeElement> entities = new LinkedHashSet<TypeElement>();
+        for (TypeElement annotation : annotations) {
+            for (Element e : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (e.getKind() == ElementKind.CLASS) {
+                    entities.add((TypeElement) e);
+                }
+            }
+        }
+
+        for (TypeElement entity : entities) {
+            try {
+                generate(entity);
+            } catch (UnsupportedEntityException e) {
+                processingEnv.getMessager().printMessage(Kind.NOTE, "Metadata is not generated, entity will be parsed at runtime: " + e.getMessage(), entity);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Kind.WARNING, "Can't write generated metadata: " + e, entity);
+            }
+        }
+        // JPA annotations are not claimed, other processors may need them
+        return false;
+    }
+
+    private void generate(TypeElement entity) throws IOException {
+        checkAccessible(entity);
+        if (entity.getNestingKind() == NestingKind.MEMBER && !entity.getModifiers().contains(Modifier.STATIC)) {
+            throw new UnsupportedEntityException(entity + " is inner class");
+        }
+
+        StringBuilder body = new StringBuilder();
+        appendEntityLevel(entity, body);
+        appendProperties(entity, body);
+
+        String pkg = elements.getPackageOf(entity).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(entity).toString();
+        String className = (pkg.length() == 0 ? binaryName : binaryName.substring(pkg.length() + 1)) + EntityTypeParser.GENERATED_SUFFIX;
+
+        StringBuilder src = new StringBuilder();
+        if (pkg.length() > 0) {
+            src.append("package ").append(pkg).append(";\n\n");
+        }
+        src.append("/**\n * Metadata of ").append(entity.getQualifiedName()).append(" generated by EntityMetadataProcessor. Do not edit.\n */\n");
+        src.append("public final class ").append(className).append(" implements ").append(FACTORY).append(" {\n\n");
+        src.append("    @Override\n");
+        src.append("    @SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n");
+        src.append("    public ").append(METADATA).append(" create() {\n");
+        src.append("        return new ").append(BUILDER).append("(").append(entity.getQualifiedName()).append(".class, ");
+        Table table = entity.getAnnotation(Table.class);
+        src.append(literal(table == null ? "" : table.name())).append(")");
+        src.append(body);
+        src.append("\n            .build();\n");
+        src.append("    }\n");
+        src.append("}\n");
+
+        String name = pkg.length() == 0 ? className : pkg + "." + className;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(name, entity);
+        Writer writer = file.openWriter();
+        try {
+            writer.write(src.toString());
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void appendEntityLevel(TypeElement entity, StringBuilder b) {
+        Table table = entity.getAnnotation(Table.class);
+        if (table != null) {
+            for (Index index : table.indexes()) {
+                b.append("\n            .index(").append(literal(index.name())).append(", ").append(literal(index.columnList())).append(")");
+            }
+        }
+
+        TableProperties props = entity.getAnnotation(TableProperties.class);
+        if (props != null) {
+            for (TableProperty prop : props.values()) {
+                b.append("\n            .property(").append(literal(prop.value())).append(")");
+            }
+        }
+
+        Ttl ttl = entity.getAnnotation(Ttl.class);
+        if (ttl != null) {
+            b.append("\n            .ttl(").append(ttl.value()).append(")");
+        }
+
+        Cacheable cacheable = entity.getAnnotation(Cacheable.class);
+        if (cacheable != null) {
+            b.append("\n            .cacheable(").append(cacheable.value()).append(")");
+        }
+
+        SkipNulls skipNulls = entity.getAnnotation(SkipNulls.class);
+        if (skipNulls != null) {
+            b.append("\n            .skipNulls(").append(skipNulls.value()).append(")");
+        }
+    }
+
+    /** same discovery rules as EntityTypeParser.parsePropertyLevelMetadata */
+    private void appendProperties(TypeElement owner, StringBuilder b) {
+        List<ExecutableElement> methods = ElementFilter.methodsIn(owner.getEnclosedElements());
+
+        for (VariableElement f : ElementFilter.fieldsIn(owner.getEnclosedElements())) {
+            boolean isEmbedded = f.getAnnotation(EmbeddedId.class) != null;
+            boolean isKey = isEmbedded || f.getAnnotation(Id.class) != null;
+            if (!isKey && f.getAnnotation(Transient.class) != null) {
+                continue;
+            }
+
+            ExecutableElement getter = null;
+            ExecutableElement setter = null;
+            for (ExecutableElement m : methods) {
+                if (isGetterFor(m, f)) {
+                    getter = m;
+                } else if (isSetterFor(m, f)) {
+                    setter = m;
+                }
+                if (getter != null && setter != null) {
+                    break;
+                }
+            }
+
+            if (getter == null || setter == null) {
+                if (isKey) {
+                    throw new UnsupportedEntityException("key " + f.getSimpleName() + " has no getter or setter");
+                }
+                continue;
+            }
+            checkAccessible(getter);
+            checkAccessible(setter);
+
+            String name = literal(f.getSimpleName().toString());
+            String type = classLiteral(f.asType());
+            Column column = f.getAnnotation(Column.class);
+            String columnName = literal(column == null ? "" : column.name());
+            String columnDef = literal(column == null ? "" : column.columnDefinition());
+            String accessor = accessor(owner, f, getter, setter);
+
+            if (isKey) {
+                b.append("\n            .startKey(").append(name).append(", ").append(type).append(", ").append(columnName).append(", ").append(columnDef).append(", ")
+                        .append(isEmbedded).append(", ").append(accessor).append(")");
+                TypeMirror keyType = f.asType();
+                if (keyType.getKind() == TypeKind.DECLARED) {
+                    // java types are scanned too, as the parser does, their
+                    // fields have no matching getters and setters
+                    TypeElement keyElement = (TypeElement) types.asElement(keyType);
+                    checkAccessible(keyElement);
+                    appendProperties(keyElement, b);
+                }
+                b.append("\n            .endKey()");
+                if (isEmbedded) {
+                    continue;
+                }
+            } else {
+                b.append("\n            .field(").append(name).append(", ").append(type).append(", ").append(columnName).append(", ").append(columnDef).append(", ")
+                        .append(accessor).append(")");
+            }
+            appendModifiers(f, b);
+        }
+    }
+
+    private void appendModifiers(VariableElement f, StringBuilder b) {
+        if (f.getAnnotation(Version.class) != null) {
+            b.append(".version()");
+        }
+
+        String erasure = types.erasure(f.asType()).toString();
+        if ("java.util.List".equals(erasure) || "java.util.Set".equals(erasure) || "java.util.Map".equals(erasure)) {
+            b.append(".generics(");
+            List<? extends TypeMirror> args = ((DeclaredType) f.asType()).getTypeArguments();
+            for (int i = 0; i < args.size(); i++) {
+                TypeMirror arg = args.get(i);
+                if (i > 0) {
+                    b.append(", ");
+                }
+                // the parser maps only plain classes
+                if (arg.getKind() == TypeKind.DECLARED && ((DeclaredType) arg).getTypeArguments().isEmpty()) {
+                    b.append(classLiteral(arg));
+                } else {
+                    b.append("null");
+                }
+            }
+            b.append(")");
+        }
+
+        CollectionType collectionType = f.getAnnotation(CollectionType.class);
+        if (collectionType != null) {
+            TypeMirror value;
+            try {
+                collectionType.value();
+                throw new UnsupportedEntityException("@CollectionType of " + f.getSimpleName() + " can't be resolved");
+            } catch (MirroredTypeException e) {
+                value = e.getTypeMirror();
+            }
+            b.append(".collectionType(").append(classLiteral(value)).append(")");
+        }
+
+        if (f.getAnnotation(Static.class) != null) {
+            b.append(".staticColumn()");
+        }
+
+        if (f.getAnnotation(GeneratedValue.class) != null) {
+            b.append(".generated()");
+        }
+    }
+
+    private String accessor(TypeElement owner, VariableElement f, ExecutableElement getter, ExecutableElement setter) {
+        String target = "((" + owner.getQualifiedName() + ") target)";
+        String primitive = primitiveName(f, getter, setter);
+        StringBuilder b = new StringBuilder();
+        b.append("new ").append(primitive == null ? ACCESSOR : PRIMITIVE_ACCESSOR).append("() {\n");
+        b.append("                @Override\n");
+        b.append("                public Object get(Object target) {\n");
+        b.append("                    return ").append(target).append(".").append(getter.getSimpleName()).append("();\n");
+        b.append("                }\n\n");
+        b.append("                @Override\n");
+        b.append("                public void set(Object target, Object value) {\n");
+        b.append("                    ").append(target).append(".").append(setter.getSimpleName()).append("((").append(castType(f.asType())).append(") value);\n");
+        b.append("                }\n");
+        if (primitive != null) {
+            String type = f.asType().toString();
+            b.append("\n");
+            b.append("                @Override\n");
+            b.append("                public ").append(type).append(" get").append(primitive).append("(Object target) {\n");
+            b.append("                    return ").append(target).append(".").append(getter.getSimpleName()).append("();\n");
+            b.append("                }\n\n");
+            b.append("                @Override\n");
+            b.append("                public void set").append(primitive).append("(Object target, ").append(type).append(" value) {\n");
+            b.append("                    ").append(target).append(".").append(setter.getSimpleName()).append("(value);\n");
+            b.append("                }\n");
+        }
+        b.append("            }");
+        return b.toString();
+    }
+
+    /**
+     * Name of the PrimitiveFieldAccessor methods for the property when the
+     * field, getter and setter have the same primitive type, null otherwise.
+     */
+    private String primitiveName(VariableElement f, ExecutableElement getter, ExecutableElement setter) {
+        TypeKind kind = f.asType().getKind();
+        if (getter.getReturnType().getKind() != kind || setter.getParameters().get(0).asType().getKind() != kind) {
+            return null;
+        }
+        switch (kind) {
+            case INT:
+                return "Int";
+            case LONG:
+                return "Long";
+            case DOUBLE:
+                return "Double";
+            case FLOAT:
+                return "Float";
+            case BOOLEAN:
+                return "Boolean";
+            default:
+                return null;
+        }
+    }
+
+    /** check if the method is getter method for the property */
+    private boolean isGetterFor(ExecutableElement method, VariableElement field) {
+        String name = method.getSimpleName().toString().toLowerCase();
+        String property = field.getSimpleName().toString().toLowerCase();
+        if (!(name.equals("get" + property) || name.equals("is" + property)))
+            return false;
+        if (!method.getParameters().isEmpty())
+            return false;
+        if (method.getReturnType().getKind() == TypeKind.VOID)
+            return false;
+        return !method.getModifiers().contains(Modifier.STATIC);
+    }
+
+    /** check if the method is setter method for the property */
+    private boolean isSetterFor(ExecutableElement method, VariableElement field) {
+        if (!method.getSimpleName().toString().toLowerCase().equals("set" + field.getSimpleName().toString().toLowerCase()))
+            return false;
+        if (method.getParameters().size() != 1)
+            return false;
+        if (method.getModifiers().contains(Modifier.STATIC))
+            return false;
+        TypeMirror param = method.getParameters().get(0).asType();
+        return types.isSameType(boxedErasure(param), boxedErasure(field.asType()));
+    }
+
+    private TypeMirror boxedErasure(TypeMirror t) {
+        if (t.getKind().isPrimitive()) {
+            return types.boxedClass((PrimitiveType) t).asType();
+        }
+        return types.erasure(t);
+    }
+
+    private String classLiteral(TypeMirror t) {
+        if (t.getKind().isPrimitive()) {
+            return t.toString() + ".class";
+        }
+        return types.erasure(t).toString() + ".class";
+    }
+
+    private String castType(TypeMirror t) {
+        if (t.getKind().isPrimitive()) {
+            return types.boxedClass((PrimitiveType) t).getQualifiedName().toString();
+        }
+        return types.erasure(t).toString();
+    }
+
+    private String literal(String value) {
+        return elements.getConstantExpression(value);
+    }
+
+    private void checkAccessible(Element e) {
+        if (e.getModifiers().contains(Modifier.PRIVATE)) {
+            throw new UnsupportedEntityException(e + " is private");
+        }
+    }
+
+    private static class UnsupportedEntityException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedEntityException(String message) {
+            super(message);
+        }
+    }
+}
@@ -19,6 +19,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 
 import java.util.Date;
 import java.util.LinkedList;
@@ -32,6 +33,7 @@ import org.junit.Test;
 
 import com.datastax.driver.core.DataType;
 import com.datastax.driver.mapping.EntityTypeParser;
+import com.datastax.driver.mapping.builder.MappingBuilder;
 import com.datastax.driver.mapping.entity.CompositeKey;
 import com.datastax.driver.mapping.entity.EntityOverrideDataType;
 import com.datastax.driver.mapping.entity.EntityWithCollectionsOverride;
@@ -40,11 +42,24 @@ import com.datastax.driver.mapping.entity.EntityWithEnum;
 import com.datastax.driver.mapping.entity.EntityWithKey;
 import com.datastax.driver.mapping.entity.EntityWithProperties;
 import com.datastax.driver.mapping.entity.EntityWithTtl;
+import com.datastax.driver.mapping.entity.EntityCached;
+import com.datastax.driver.mapping.entity.EntitySparse;
+import com.datastax.driver.mapping.entity.EntityWithVersion;
+import com.datastax.driver.mapping.entity.Month;
 import com.datastax.driver.mapping.entity.Simple;
 import com.datastax.driver.mapping.entity.SimpleKey;
+import com.datastax.driver.mapping.entity.generated.EntityGenerated;
+import com.datastax.driver.mapping.entity.generated.EntityGeneratedStatic;
+import com.datastax.driver.mapping.meta.AbstractPrimitiveFieldAccessor;
+import com.datastax.driver.mapping.meta.AccessorType;
+import com.datastax.driver.mapping.meta.DirectFieldAccessor;
 import com.datastax.driver.mapping.meta.EntityFieldMetaData;
 import com.datastax.driver.mapping.meta.EntityTypeMetadata;
+import com.datastax.driver.mapping.meta.LambdaFieldAccessor;
+import com.datastax.driver.mapping.meta.MethodHandleFieldAccessor;
 import com.datastax.driver.mapping.meta.PrimaryKeyMetadata;
+import com.datastax.driver.mapping.meta.PrimitiveFieldAccessor;
+import com.datastax.driver.mapping.meta.ReflectionFieldAccessor;
 
 public class EntityTypeParserTest {
 	
@@ -186,7 +201,21 @@ public class EntityTypeParserTest {
 		assertEquals(0, meta.getIndexes().size());
 		assertEquals(3, meta.getFields().size());
 		assertEquals(3, meta.getTtl());
+		assertFalse(meta.isCacheable());
 	}	
+
+	@Test
+	public void testGetEntityMetadataCacheable() {
+		EntityTypeMetadata meta = EntityTypeParser.getEntityMetadata(EntityCached.class);
+		assertEquals("test_entity_cached", meta.getTableName());
+		assertTrue(meta.isCacheable());
+	}
+
+	@Test
+	public void testGetEntityMetadataSkipNulls() {
+		assertTrue(EntityTypeParser.getEntityMetadata(EntitySparse.class).isSkipNulls());
+		assertFalse(EntityTypeParser.getEntityMetadata(EntityCached.class).isSkipNulls());
+	}
 	
 	@Test
 	public void testGetEntityMetadataOverrideDataType() {
@@ -222,4 +251,153 @@ public class EntityTypeParserTest {
 		assertEquals("entity_with_enum", meta.getTableName());
 		assertEquals(2, meta.getFields().size());
 	}	
+
+	@Test
+	public void testEnumAccessor() {
+		EntityTypeMetadata meta = EntityTypeParser.getEntityMetadata(EntityWithEnum.class);
+		EntityFieldMetaData fd = meta.getFieldMetadata("month");
+		
+		EntityWithEnum entity = new EntityWithEnum();
+		fd.setValue(entity, Month.APRIL.name());
+		assertEquals(Month.APRIL, entity.getMonth());
+		assertEquals(Month.APRIL.name(), fd.getValue(entity));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testEnumAccessorUnknownConstant() {
+		EntityTypeMetadata meta = EntityTypeParser.getEntityMetadata(EntityWithEnum.class);
+		meta.getFieldMetadata("month").setValue(new EntityWithEnum(), "SMARCH");
+	}
+	
+	@Test(expected = RuntimeException.class)
+	public void testAccessorFailurePropagates() {
+		EntityTypeMetadata meta = EntityTypeParser.getEntityMetadata(EntityWithEnum.class);
+		meta.getFieldMetadata("id").setValue(new EntityWithEnum(), "not a uuid");
+	}
+	
+	@Test
+	public void testFieldAccessorType() {
+		EntityTypeParser.setAccessorType(AccessorType.FIELD);
+		try {
+			EntityTypeMetadata meta = EntityTypeParser.getEntityMetadata(Simple.class);
+			assertEquals(6, meta.getFields().size());
+			
+			EntityFieldMetaData fd = meta.getFieldMetadata("name");
+			assertTrue(fd.getAccessor() instanceof DirectFieldAccessor);
+			
+			Simple entity = new Simple();
+			fd.setValue(entity, "name");
+			assertEquals("name", entity.getName());
+			assertEquals("name", fd.getValue(entity));
+		} finally {
+			EntityTypeParser.setAccessorType(AccessorType.METHOD_HANDLE);
+		}
+	}
+
+	@Test
+	public void testLambdaAccessorType() {
+		EntityTypeParser.setAccessorType(AccessorType.LAMBDA);
+		try {
+			EntityTypeMetadata meta = EntityTypeParser.getEntityMetadata(EntityWithVersion.class);
+			EntityFieldMetaData fd = meta.getFieldMetadata("name");
+			assertTrue(fd.getAccessor() instanceof LambdaFieldAccessor);
+			
+			EntityWithVersion entity = new EntityWithVersion();
+			fd.setValue(entity, "name");
+			assertEquals("name", entity.getName());
+			assertEquals("name", fd.getValue(entity));
+			
+			EntityFieldMetaData version = meta.getVersionField();
+			assertTrue(version.getAccessor() instanceof LambdaFieldAccessor);
+			version.setLong(entity, 5L);
+			assertEquals(5L, entity.getVersion());
+			assertEquals(5L, version.getLong(entity));
+			assertEquals(5L, version.getValue(entity));
+		} finally {
+			EntityTypeParser.setAccessorType(AccessorType.METHOD_HANDLE);
+		}
+	}
+
+	@Test
+	public void testGeneratedMetadata() {
+		// only the fixture in entity/generated is compiled with EntityMetadataProcessor
+		EntityTypeMetadata meta = EntityTypeParser.getEntityMetadata(EntityGenerated.class);
+		EntityFieldMetaData fd = meta.getFieldMetadata("name");
+		assertFalse(fd.getAccessor() instanceof MethodHandleFieldAccessor);
+		assertFalse(fd.getAccessor() instanceof ReflectionFieldAccessor);
+		assertEquals(8, meta.getFields().size());
+		assertEquals("(name,rank,t1,t2),created,email", meta.getPkDefinition());
+
+		EntityFieldMetaData version = meta.getVersionField();
+		assertTrue(version.getAccessor() instanceof AbstractPrimitiveFieldAccessor);
+		EntityGenerated entity = new EntityGenerated();
+		version.setLong(entity, 5L);
+		assertEquals(5L, entity.getVersion());
+
+		// the other test entities are parsed with reflection
+		meta = EntityTypeParser.getEntityMetadata(EntityWithCompositeKey.class);
+		assertTrue(meta.getFieldMetadata("name").getAccessor() instanceof MethodHandleFieldAccessor);
+		assertEquals("(name,rank,t1,t2),created,email", meta.getPkDefinition());
+	}
+
+	@Test
+	public void testGeneratedMatchesParsed() {
+		for (Class<?> clazz : new Class<?>[] { EntityGenerated.class, EntityGeneratedStatic.class }) {
+			EntityTypeMetadata generated = EntityTypeParser.getEntityMetadata(clazz);
+			EntityTypeMetadata parsed = EntityTypeParser.parseWithReflection(clazz);
+			assertFalse(generated.getFields().get(0).getAccessor() instanceof MethodHandleFieldAccessor);
+
+			assertEquals(parsed.getTableName(), generated.getTableName());
+			assertEquals(parsed.getPkDefinition(), generated.getPkDefinition());
+			assertEquals(parsed.getPkColumns(), generated.getPkColumns());
+			assertEquals(parsed.getFields().size(), generated.getFields().size());
+			for (EntityFieldMetaData expected : parsed.getFields()) {
+				EntityFieldMetaData actual = generated.getFieldMetadata(expected.getName());
+				assertNotNull(expected.getName(), actual);
+				assertEquals(expected.getColumnName(), actual.getColumnName());
+				assertEquals(expected.getType(), actual.getType());
+				assertEquals(expected.getDataType(), actual.getDataType());
+				assertEquals(expected.isPrimary(), actual.isPrimary());
+				assertEquals(expected.isPartition(), actual.isPartition());
+				assertEquals(expected.isStatic(), actual.isStatic());
+				assertEquals(expected.getGenericDef(), actual.getGenericDef());
+			}
+		}
+		EntityTypeMetadata meta = EntityTypeParser.getEntityMetadata(EntityGeneratedStatic.class);
+		assertTrue(meta.getFieldMetadata("balance").isStatic());
+		assertNotNull(meta.getFieldMetadata("region"));
+	}
+
+	@Test
+	public void testPrimitiveAccessor() {
+		EntityTypeMetadata meta = EntityTypeParser.getEntityMetadata(EntityWithVersion.class);
+		EntityFieldMetaData fd = meta.getVersionField();
+		assertTrue(fd.isPrimitive());
+		assertTrue(fd.getAccessor() instanceof PrimitiveFieldAccessor);
+
+		EntityWithVersion entity = new EntityWithVersion();
+		fd.setLong(entity, 5L);
+		assertEquals(5L, entity.getVersion());
+		assertEquals(5L, fd.getLong(entity));
+		assertEquals(5L, fd.getValue(entity));
+	}
+
+	@Test
+	public void testCopy() {
+		SimpleKey key = new SimpleKey();
+		key.setName("name");
+		key.setRank(10);
+		key.setT1(UUID.randomUUID());
+		key.setT2(UUID.randomUUID());
+		EntityWithKey entity = new EntityWithKey();
+		entity.setKey(key);
+		entity.setTimestamp(42);
+		entity.setAsof(new Date());
+
+		EntityWithKey copy = MappingBuilder.copy(entity);
+		assertEquals(entity, copy);
+		assertEquals(key, copy.getKey());
+		assertNotSame(key, copy.getKey());
+		assertNotSame(entity.getAsof(), copy.getAsof());
+	}
 }
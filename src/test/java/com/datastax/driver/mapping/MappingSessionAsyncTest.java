@@ -34,6 +34,8 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import org.junit.After;
 import org.junit.AfterClass;
@@ -71,6 +73,7 @@ import com.datastax.driver.mapping.entity.SimpleKey;
 import com.datastax.driver.mapping.option.WriteOptions;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ListenableFuture;
 
 public class MappingSessionAsyncTest {
 
@@ -150,6 +153,51 @@ public class MappingSessionAsyncTest {
 		assertNull(loaded);
 	}
 
+	@Test
+	public void getAsyncTest() throws Exception {
+		UUID uuid = UUID.randomUUID();
+		EntityWithIndexes obj = new EntityWithIndexes();
+		obj.setCount(100);
+		obj.setEmail("email@async");
+		obj.setName("test");
+		obj.setTimeStamp(new Date());
+		obj.setUuid(uuid);
+		
+		assertNull(target.getAsync(EntityWithIndexes.class, uuid).get());
+		
+		target.saveAsync(obj).getUninterruptibly();
+		
+		EntityWithIndexes loaded = target.getAsync(EntityWithIndexes.class, uuid).get();
+		assertEquals(obj, loaded);
+		
+		List<EntityWithIndexes> items = target.getByQueryAsync(EntityWithIndexes.class, "SELECT * FROM test_entity_index WHERE email='email@async'").get();
+		assertEquals(1, items.size());
+		assertEquals(obj, items.get(0));
+	}
+	
+	@Test
+	public void coalesceReadsTest() throws Exception {
+		UUID uuid = UUID.randomUUID();
+		EntityWithIndexes obj = new EntityWithIndexes();
+		obj.setEmail("email@coalesce");
+		obj.setName("test");
+		obj.setUuid(uuid);
+		target.save(obj);
+		
+		target.setCoalesceReads(true, false);
+		ListenableFuture<EntityWithIndexes> f1 = target.getAsync(EntityWithIndexes.class, uuid);
+		ListenableFuture<EntityWithIndexes> f2 = target.getAsync(EntityWithIndexes.class, uuid);
+		assertEquals(obj, f1.get());
+		assertEquals(obj, f2.get());
+		assertSame(f1.get(), f2.get());
+		
+		target.setCoalesceReads(true, true);
+		f1 = target.getAsync(EntityWithIndexes.class, uuid);
+		f2 = target.getAsync(EntityWithIndexes.class, uuid);
+		assertEquals(f1.get(), f2.get());
+		assertNotSame(f1.get(), f2.get());
+		assertEquals(obj, target.get(EntityWithIndexes.class, uuid));
+	}
 	
 	@Test
 	public void saveAndGetWithOptionsTest() throws Exception {
@@ -656,16 +704,20 @@ public class MappingSessionAsyncTest {
 		ResultSetFuture f = target.saveAsync(obj2);
 		f.getUninterruptibly();
 		
-		f = target.withBatch()
+		target.withBatch()
 			.save(obj1)
 			.delete(obj2)
-			.executeAsync();
-		f.getUninterruptibly();
+			.executeAsync().get();
 		
 		Simple loaded1 = target.get(Simple.class, uuid1);
 		Simple loaded2 = target.get(Simple.class, uuid2);
 		assertNull(loaded2);
 		assertNotNull(loaded1);
+		
+		// an empty batch is not sent, its future is already done
+		ListenableFuture<?> empty = target.withBatch().executeAsync();
+		assertTrue(empty.isDone());
+		assertNull(empty.get());
 	}
 
 	@Test
@@ -686,12 +738,11 @@ public class MappingSessionAsyncTest {
 		obj3.setTimestamp(new Date());
 		obj3.setId(uuid3);
 		
-		ResultSetFuture f = target.withBatch()
+		target.withBatch()
 			.save(obj1)
 			.save(obj2)
 			.save(obj3, new WriteOptions().setTtl(10))
-			.executeAsync();
-		f.getUninterruptibly();
+			.executeAsync().get();
 		
 		Simple loaded1 = target.get(Simple.class, uuid1);
 		EntityWithTtl loaded2 = target.get(EntityWithTtl.class, uuid2);
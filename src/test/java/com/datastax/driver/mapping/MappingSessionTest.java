@@ -26,11 +26,19 @@ import com.datastax.driver.core.utils.UUIDs;
 import com.datastax.driver.mapping.entity.*;
 import com.datastax.driver.mapping.meta.EntityFieldMetaData;
 import com.datastax.driver.mapping.meta.EntityTypeMetadata;
+import com.datastax.driver.mapping.option.ReadOptions;
+import com.datastax.driver.mapping.MappingSession.BatchExecutor;
+import com.datastax.driver.mapping.option.BatchOptions;
+import com.datastax.driver.mapping.option.CounterOptions;
+import com.datastax.driver.mapping.option.LoaderOptions;
+import com.datastax.driver.mapping.option.ScanOptions;
+import com.datastax.driver.mapping.option.WriteBehindOptions;
 import com.datastax.driver.mapping.option.WriteOptions;
 import com.datastax.driver.mapping.schemasync.SyncOptionTypes;
 import com.datastax.driver.mapping.schemasync.SyncOptions;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ListenableFuture;
 
 import org.junit.*;
 
@@ -195,6 +203,22 @@ public class MappingSessionTest {
 		assertNull(loaded);
 	}
 
+	@Test
+	public void updateValueWithDefaultTtlTest() throws Exception {
+		UUID uuid = UUID.randomUUID();
+		EntityWithTtl obj = new EntityWithTtl();
+		obj.setId(uuid);
+		target.save(obj, new WriteOptions().setTtl(60));
+		
+		// the entity @Ttl applies to the updated value
+		target.updateValue(uuid, EntityWithTtl.class, "email", "email");
+		Row row = session.execute("SELECT TTL(email) FROM test_entity_ttl WHERE id=" + uuid).one();
+		assertTrue(row.getInt(0) > 0 && row.getInt(0) <= 3);
+		
+		Thread.sleep(4000);
+		assertNull(target.get(EntityWithTtl.class, uuid).getEmail());
+	}
+
 	@Test
 	public void saveAndGetWithOverrideTtlTest() throws Exception {
 		UUID uuid = UUID.randomUUID();
@@ -254,6 +278,58 @@ public class MappingSessionTest {
 		assertEquals(3, items.size());
 	}
 	
+	@Test
+	public void iterateTest() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			EntityWithIndexes obj = new EntityWithIndexes();
+			obj.setCount(100);
+			obj.setEmail("email@iterate");
+			obj.setName("test"+i);
+			obj.setTimeStamp(new Date());
+			obj.setUuid(UUID.randomUUID());
+			target.save(obj);
+		}
+		EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(EntityWithIndexes.class);
+		EntityFieldMetaData fdata = emeta.getFieldMetadata("email");
+
+		// fetch size smaller than the result to go through the pages
+		Statement query = QueryBuilder.select().all().from(keyspace, emeta.getTableName()).where(eq(fdata.getColumnName(), "email@iterate")).setFetchSize(2);
+		Iterator<EntityWithIndexes> it = target.iterate(EntityWithIndexes.class, query);
+		int count = 0;
+		while (it.hasNext()) {
+			assertEquals("email@iterate", it.next().getEmail());
+			count++;
+		}
+		assertEquals(5, count);
+		
+		// the same rows as a stream
+		assertEquals(5, target.stream(EntityWithIndexes.class, query).count());
+	}
+	
+	@Test
+	public void scanTest() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			EntityWithIndexes obj = new EntityWithIndexes();
+			obj.setCount(i);
+			obj.setEmail("email@scan");
+			obj.setName("test"+i);
+			obj.setTimeStamp(new Date());
+			obj.setUuid(UUID.randomUUID());
+			target.save(obj);
+		}
+		
+		final Set<UUID> scanned = Collections.synchronizedSet(new HashSet<UUID>());
+		ScanOptions options = new ScanOptions().setSplits(4).setParallelism(2).setFetchSize(3);
+		long count = target.scan(EntityWithIndexes.class, new EntityHandler<EntityWithIndexes>() {
+			@Override
+			public void handle(EntityWithIndexes entity) {
+				scanned.add(entity.getUuid());
+			}
+		}, options);
+		assertEquals(20, count);
+		assertEquals(20, scanned.size());
+	}
+	
 	@Test
 	public void testCollections() throws Exception {
 		EntityWithCollections obj = new EntityWithCollections();
@@ -412,6 +488,132 @@ public class MappingSessionTest {
 		assertNull(loaded);
 	}
 	
+	@Test
+	public void getAllTest() throws Exception {
+		List<SimpleKey> keys = new ArrayList<SimpleKey>();
+		UUID t1 = UUIDs.timeBased();
+		for (int i = 0; i < 5; i++) {
+			SimpleKey key = new SimpleKey();
+			key.setName("name");
+			key.setRank(10);
+			key.setT1(t1);
+			key.setT2(UUIDs.timeBased());
+			keys.add(key);
+			
+			EntityWithKey obj = new EntityWithKey();
+			obj.setKey(key);
+			obj.setTimestamp(i);
+			obj.setAsof(new Date());
+			target.save(obj);
+		}
+		SimpleKey missing = new SimpleKey();
+		missing.setName("missing");
+		missing.setT1(t1);
+		missing.setT2(t1);
+		keys.add(2, missing);
+		
+		ReadOptions options = new ReadOptions().setMaxInFlight(2);
+		Map<Object, EntityWithKey> loaded = target.getAll(EntityWithKey.class, keys, options);
+		assertEquals(5, loaded.size());
+		assertFalse(loaded.containsKey(missing));
+		assertEquals(keys.get(0), loaded.keySet().iterator().next());
+		
+		// same partition and clustering prefix, one IN query
+		loaded = target.getAll(EntityWithKey.class, keys, options.setGroupByPartition(true));
+		assertEquals(5, loaded.size());
+		assertEquals(3, loaded.get(keys.get(4)).getTimestamp());
+	}
+	
+	@Test
+	public void entityCacheTest() throws Exception {
+		EntityCache cache = new EntityCache(100, 1, TimeUnit.MINUTES, true);
+		target.setEntityCache(cache);
+		UUID id = UUID.randomUUID();
+		assertNull(target.get(EntityCached.class, id));
+		assertNull(target.get(EntityCached.class, id));
+		assertEquals(1, cache.stats().hitCount());
+		
+		// save evicts the cached absence
+		EntityCached obj = new EntityCached();
+		obj.setId(id);
+		obj.setEmail("email");
+		target.save(obj);
+		EntityCached loaded = target.get(EntityCached.class, id);
+		assertEquals("email", loaded.getEmail());
+		
+		// every hit is a copy, changing it does not change the cache
+		loaded.setEmail("changed");
+		EntityCached hit = target.get(EntityCached.class, id);
+		assertNotSame(loaded, hit);
+		assertEquals(id, hit.getId());
+		assertEquals("email", hit.getEmail());
+		EntityCached fromAll = target.getAll(EntityCached.class, Arrays.asList(id)).get(id);
+		assertNotSame(hit, fromAll);
+		assertEquals("email", fromAll.getEmail());
+		
+		// reads with a consistency level skip the cache
+		long requests = cache.stats().requestCount();
+		ReadOptions quorum = new ReadOptions().setConsistencyLevel(ConsistencyLevel.QUORUM);
+		assertEquals("email", target.get(EntityCached.class, id, quorum).getEmail());
+		assertEquals(requests, cache.stats().requestCount());
+		
+		// a load which started before the eviction does not fill the cache
+		cache.invalidate(EntityCached.class, id);
+		long generation = cache.generation(EntityCached.class, id);
+		cache.invalidate(EntityCached.class, id);
+		cache.put(EntityCached.class, id, hit, generation);
+		assertNull(cache.lookup(EntityCached.class, id));
+		
+		target.updateValue(id, EntityCached.class, "email", "updated");
+		assertEquals("updated", target.get(EntityCached.class, id).getEmail());
+		
+		target.delete(obj);
+		assertNull(target.get(EntityCached.class, id));
+		
+		// not annotated entities are not cached
+		requests = cache.stats().requestCount();
+		target.get(Simple.class, UUID.randomUUID());
+		assertEquals(requests, cache.stats().requestCount());
+	}
+	
+	@Test
+	public void loaderTest() throws Exception {
+		List<SimpleKey> keys = new ArrayList<SimpleKey>();
+		UUID t1 = UUIDs.timeBased();
+		for (int i = 0; i < 3; i++) {
+			SimpleKey key = new SimpleKey();
+			key.setName("name");
+			key.setRank(10);
+			key.setT1(t1);
+			key.setT2(UUIDs.timeBased());
+			keys.add(key);
+			
+			EntityWithKey obj = new EntityWithKey();
+			obj.setKey(key);
+			obj.setTimestamp(i);
+			target.save(obj);
+		}
+		SimpleKey missing = new SimpleKey();
+		missing.setName("missing");
+		missing.setT1(t1);
+		missing.setT2(t1);
+		
+		EntityLoader<EntityWithKey> loader = target.newLoader(EntityWithKey.class, new LoaderOptions().setMaxDelayMillis(50));
+		List<ListenableFuture<EntityWithKey>> futures = new ArrayList<ListenableFuture<EntityWithKey>>();
+		for (SimpleKey key : keys) {
+			futures.add(loader.load(key));
+		}
+		ListenableFuture<EntityWithKey> notFound = loader.load(missing);
+		for (int i = 0; i < keys.size(); i++) {
+			assertEquals(i, futures.get(i).get().getTimestamp());
+		}
+		assertNull(notFound.get());
+		
+		// the batch is dispatched as soon as it is full
+		loader = target.newLoader(EntityWithKey.class, new LoaderOptions().setMaxBatchSize(1).setMaxDelayMillis(60000));
+		assertEquals(2, loader.get(keys.get(2)).getTimestamp());
+	}
+	
 	@Test
 	public void saveAndGetAndDeleteMixedCaseTest() throws Exception {
 		int id = 12245;
@@ -461,6 +663,214 @@ public class MappingSessionTest {
 		assertNull(saved);
 	}	
 	
+	@Test
+	public void saveAllAndDeleteAllTest() throws Exception {
+		List<Simple> entities = new ArrayList<Simple>();
+		for (int i = 0; i < 10; i++) {
+			Simple obj = new Simple();
+			obj.setId(UUID.randomUUID());
+			obj.setName("bulk" + i);
+			entities.add(obj);
+		}
+		List<WriteResult<Simple>> results = target.saveAll(entities, new WriteOptions().setMaxInFlight(3));
+		assertEquals(10, results.size());
+		for (int i = 0; i < results.size(); i++) {
+			assertSame(entities.get(i), results.get(i).getEntity());
+			assertTrue(results.get(i).isApplied());
+			assertNotNull(target.get(Simple.class, entities.get(i).getId()));
+		}
+		
+		results = target.deleteAllAsync(entities).get();
+		for (WriteResult<Simple> result : results) {
+			assertTrue(result.isSuccess());
+			assertNull(target.get(Simple.class, result.getEntity().getId()));
+		}
+		
+		// stale version is reported as not applied
+		EntityWithVersion obj = new EntityWithVersion();
+		obj.setId(UUID.randomUUID());
+		obj.setName("ver1");
+		target.save(obj);
+		EntityWithVersion stale = target.get(EntityWithVersion.class, obj.getId());
+		target.save(obj);
+		List<WriteResult<EntityWithVersion>> versioned = target.saveAll(Arrays.asList(stale));
+		assertTrue(versioned.get(0).isSuccess());
+		assertFalse(versioned.get(0).isApplied());
+	}
+	
+	@Test
+	public void skipNullsTest() throws Exception {
+		EntitySparse obj = new EntitySparse();
+		obj.setId(UUID.randomUUID());
+		obj.setName("name");
+		obj.setEmail("email");
+		target.save(obj);
+		
+		// null is left unset, the stored value stays
+		obj.setEmail(null);
+		target.save(obj);
+		assertEquals("email", target.get(EntitySparse.class, obj.getId()).getEmail());
+		
+		// explicit delete of the value
+		target.deleteValue(obj.getId(), EntitySparse.class, "email");
+		assertNull(target.get(EntitySparse.class, obj.getId()).getEmail());
+		
+		// options override the entity default
+		obj.setName(null);
+		target.save(obj, new WriteOptions().setSkipNulls(false));
+		assertNull(target.get(EntitySparse.class, obj.getId()).getName());
+	}
+	
+	@Test
+	public void trackChangesTest() throws Exception {
+		Simple obj = new Simple();
+		obj.setId(UUID.randomUUID());
+		obj.setName("name");
+		obj.setAge(10);
+		target.save(obj);
+		
+		target.setTrackChanges(true);
+		try {
+			Simple loaded = target.get(Simple.class, obj.getId());
+			List<WriteResult<Simple>> results = target.saveAll(Arrays.asList(loaded));
+			assertNull("unchanged entity is not sent", results.get(0).getStatement());
+			
+			// snapshots belong to the session which read the entity
+			MappingSession other = new MappingSession(keyspace, session);
+			assertFalse(other.isTrackChanges());
+			assertNotNull(other.saveAll(Arrays.asList(loaded)).get(0).getStatement());
+			
+			loaded.setAge(11);
+			results = target.saveAll(Arrays.asList(loaded));
+			String cql = ((BoundStatement) results.get(0).getStatement()).preparedStatement().getQueryString();
+			assertTrue(cql.startsWith("UPDATE"));
+			assertTrue(cql.contains("age"));
+			assertFalse(cql.contains("name"));
+			assertTrue(results.get(0).isApplied());
+			
+			// the snapshot is refreshed by the save
+			assertSame(loaded, target.save(loaded));
+			assertEquals(11, target.get(Simple.class, obj.getId()).getAge());
+			assertEquals("name", target.get(Simple.class, obj.getId()).getName());
+			
+			// saveAsync() sends an unchanged entity with all columns
+			assertTrue(target.saveAsync(loaded).getUninterruptibly().wasApplied());
+			assertEquals("name", target.get(Simple.class, obj.getId()).getName());
+			
+			// new entities are saved as before
+			assertNotNull(target.saveAsync(obj));
+		} finally {
+			target.setTrackChanges(false);
+		}
+	}
+	
+	@Test
+	public void trackChangesCollectionsTest() throws Exception {
+		EntityWithCollections obj = new EntityWithCollections();
+		Map<String, BigDecimal> rates = new HashMap<String, BigDecimal>();
+		rates.put("a", new BigDecimal("1.0"));
+		rates.put("b", new BigDecimal("2.0"));
+		obj.setRates(rates);
+		obj.setRefs(new HashSet<String>(Arrays.asList("x", "y")));
+		obj.setTrades(new ArrayList<Integer>(Arrays.asList(1, 2)));
+		target.save(obj);
+		
+		target.setTrackChanges(true);
+		try {
+			EntityWithCollections loaded = target.get(EntityWithCollections.class, obj.getId());
+			loaded.getRates().remove("a");
+			loaded.getRates().put("c", new BigDecimal("3.0"));
+			loaded.getRefs().remove("x");
+			loaded.getRefs().add("z");
+			loaded.getTrades().add(3);
+			List<WriteResult<EntityWithCollections>> results = target.saveAll(Arrays.asList(loaded));
+			String cql = ((BoundStatement) results.get(0).getStatement()).preparedStatement().getQueryString();
+			assertTrue(cql.contains("rates=rates+?"));
+			assertTrue(cql.contains("rates=rates-?"));
+			assertTrue(cql.contains("refs=refs+?"));
+			assertTrue(cql.contains("refs=refs-?"));
+			assertTrue(cql.contains("trades=trades+?"));
+			
+			EntityWithCollections saved = target.get(EntityWithCollections.class, obj.getId());
+			assertEquals(new HashSet<String>(Arrays.asList("b", "c")), saved.getRates().keySet());
+			assertEquals(new HashSet<String>(Arrays.asList("y", "z")), saved.getRefs());
+			assertEquals(Arrays.asList(1, 2, 3), saved.getTrades());
+			
+			// reordered list is overwritten
+			Collections.reverse(loaded.getTrades());
+			results = target.saveAll(Arrays.asList(loaded));
+			cql = ((BoundStatement) results.get(0).getStatement()).preparedStatement().getQueryString();
+			assertTrue(cql.contains("trades=?"));
+			assertEquals(Arrays.asList(3, 2, 1), target.get(EntityWithCollections.class, obj.getId()).getTrades());
+		} finally {
+			target.setTrackChanges(false);
+		}
+	}
+	
+	@Test
+	public void ttlAndTimestampBoundTest() throws Exception {
+		Simple obj = new Simple();
+		obj.setId(UUID.randomUUID());
+		obj.setName("ttl");
+		target.save(obj, new WriteOptions().setTtl(1000).setTimestamp(1000L));
+		target.updateValue(obj.getId(), Simple.class, "name", "first", new WriteOptions().setTtl(1000));
+		EntityWithCollections coll = new EntityWithCollections();
+		target.save(coll);
+		target.append(coll.getId(), EntityWithCollections.class, "refs", "a");
+		long cached = MappingSession.getStatementCache().size();
+		
+		// other values and options reuse the prepared statements
+		target.save(obj, new WriteOptions().setTtl(2000).setTimestamp(2000L));
+		target.updateValue(obj.getId(), Simple.class, "name", "second", new WriteOptions().setTtl(3000));
+		target.append(coll.getId(), EntityWithCollections.class, "refs", "b");
+		assertEquals(cached, MappingSession.getStatementCache().size());
+		
+		Row row = session.execute("SELECT TTL(name), WRITETIME(age), name FROM simple WHERE id=" + obj.getId()).one();
+		assertTrue(row.getInt(0) > 2000);
+		assertEquals(2000L, row.getLong(1));
+		assertEquals("second", row.getString(2));
+		assertEquals(new HashSet<String>(Arrays.asList("a", "b")), target.get(EntityWithCollections.class, coll.getId()).getRefs());
+	}
+	
+	@Test
+	public void writeBehindTest() throws Exception {
+		WriteBehind wb = target.newWriteBehind(new WriteBehindOptions().setFlushIntervalMillis(0).setMaxPending(100));
+		Simple obj = new Simple();
+		obj.setId(UUID.randomUUID());
+		obj.setName("first");
+		wb.save(obj);
+		Simple latest = new Simple();
+		latest.setId(obj.getId());
+		latest.setName("latest");
+		wb.save(latest);
+		assertEquals(1, wb.getPending());
+		assertNull(target.get(Simple.class, obj.getId()));
+		
+		List<BatchResult> results = wb.flush().get();
+		assertEquals(1, results.size());
+		assertTrue(results.get(0).isSuccess());
+		assertEquals("latest", target.get(Simple.class, obj.getId()).getName());
+		
+		// save then delete sends the delete only
+		wb.save(obj);
+		wb.delete(obj);
+		wb.close();
+		assertEquals(0, wb.getPending());
+		assertNull(target.get(Simple.class, obj.getId()));
+		
+		try {
+			wb.save(obj);
+			fail("closed WriteBehind must reject writes");
+		} catch (IllegalStateException e) {
+		}
+		
+		// grouped into batches by partition
+		wb = target.newWriteBehind(new WriteBehindOptions().setFlushIntervalMillis(0).setBatchOptions(new BatchOptions().setGroupByPartition(true)));
+		wb.save(obj);
+		wb.close();
+		assertNotNull(target.get(Simple.class, obj.getId()));
+	}
+	
 	@Test
 	public void appendToListTest() throws Exception {
 		UUID id = UUID.randomUUID();
@@ -705,6 +1115,81 @@ public class MappingSessionTest {
 		assertNotNull(loaded1);
 	}
 
+	@Test
+	public void batchGroupByPartitionTest() throws Exception {
+		UUID uuid1 = UUID.randomUUID();
+		Simple obj1 = new Simple();
+		obj1.setTimestamp(new Date());
+		obj1.setId(uuid1);
+		
+		BatchExecutor batch = target.withBatch().save(obj1);
+		List<SimpleKey> keys = new ArrayList<SimpleKey>();
+		for (int i = 0; i < 3; i++) {
+			SimpleKey key = new SimpleKey();
+			key.setName("partition");
+			key.setRank(i);
+			key.setT1(UUIDs.timeBased());
+			key.setT2(UUIDs.timeBased());
+			keys.add(key);
+			EntityWithKey obj = new EntityWithKey();
+			obj.setKey(key);
+			obj.setTimestamp(i);
+			batch.save(obj);
+		}
+		batch.withOptions(new BatchOptions().setGroupByPartition(true));
+		// one statement for Simple and one unlogged batch for the partition
+		assertEquals(2, batch.executeAllAsync().get().size());
+		
+		assertNotNull(target.get(Simple.class, uuid1));
+		for (SimpleKey key : keys) {
+			assertNotNull(target.get(EntityWithKey.class, key));
+		}
+	}
+
+	@Test
+	public void batchSplitTest() throws Exception {
+		BatchExecutor batch = target.withBatch();
+		List<UUID> ids = new ArrayList<UUID>();
+		for (int i = 0; i < 10; i++) {
+			Simple obj = new Simple();
+			obj.setId(UUID.randomUUID());
+			obj.setName("split");
+			ids.add(obj.getId());
+			batch.save(obj);
+		}
+		batch.withOptions(new BatchOptions().setMaxStatements(3).setMaxSize(64 * 1024).setMaxInFlight(2));
+		List<BatchResult> results = batch.executeWithReportAsync().get();
+		assertEquals(4, results.size());
+		assertEquals(3, results.get(0).getStatementCount());
+		assertEquals(1, results.get(3).getStatementCount());
+		for (BatchResult result : results) {
+			assertTrue(result.toString(), result.isSuccess());
+			assertTrue(result.getEstimatedSize() > 0);
+		}
+		for (UUID id : ids) {
+			assertNotNull(target.get(Simple.class, id));
+		}
+	}
+
+	@Test
+	public void batchTypeAndTimestampTest() throws Exception {
+		UUID uuid = UUID.randomUUID();
+		Simple obj = new Simple();
+		obj.setId(uuid);
+		obj.setName("unlogged");
+		
+		long timestamp = 1000000L;
+		BatchExecutor batch = target.withBatch().save(obj);
+		batch.withOptions(new BatchOptions().setType(BatchStatement.Type.UNLOGGED).setDefaultTimestamp(timestamp));
+		batch.execute();
+		
+		Row row = session.execute("SELECT writetime(name) FROM simple WHERE id = ?", uuid).one();
+		assertEquals(timestamp, row.getLong(0));
+		
+		target.withBatch().delete(obj).execute();
+		assertNull(target.get(Simple.class, uuid));
+	}
+
 	@Test
 	public void batchTtlTest() throws Exception {
 		
@@ -960,6 +1445,34 @@ public class MappingSessionTest {
         assertEquals(2, entityWithCounter.getCounterValue());
     }
     
+    @Test
+    public void incrementCounterTest() throws Exception {
+        target.increment("incrSource", EntityWithCounter.class, "counterValue", 5);
+        target.incrementAsync("incrSource", EntityWithCounter.class, "counterValue", -2).getUninterruptibly();
+        assertEquals(3, target.get(EntityWithCounter.class, "incrSource").getCounterValue());
+        
+        try {
+            target.save(target.get(EntityWithCounter.class, "incrSource"));
+            fail("counter entity must not be inserted");
+        } catch (IllegalArgumentException e) {
+        }
+        
+        CounterAccumulator acc = target.newCounterAccumulator(new CounterOptions().setFlushIntervalMillis(0));
+        for (int i = 0; i < 1000; i++) {
+            acc.add("accSource" + (i % 3), EntityWithCounter.class, "counterValue", 1);
+        }
+        assertEquals(3, acc.getPending());
+        List<BatchResult> results = acc.flush().get();
+        // one update per row, rows of different partitions are not batched
+        assertEquals(3, results.size());
+        assertEquals(334, target.get(EntityWithCounter.class, "accSource0").getCounterValue());
+        assertEquals(333, target.get(EntityWithCounter.class, "accSource2").getCounterValue());
+        
+        acc.add("accSource0", EntityWithCounter.class, "counterValue", 6);
+        acc.close();
+        assertEquals(340, target.get(EntityWithCounter.class, "accSource0").getCounterValue());
+    }
+    
     @Test
     public void entityWithStaticTest() throws Exception {
         target.maybeSync(EntityWithStaticField.class);
@@ -1055,6 +1568,29 @@ public class MappingSessionTest {
         target.delete(obj2);
     }     
     
+    @Test
+    public void getWithRowMappersTest() throws Exception {
+        MappingSession.setUseRowMappers(true);
+        try {
+            Simple obj1 = buildSimpleEntity();
+            target.save(obj1);
+
+            Simple obj2 = buildSimpleEntity();
+            target.save(obj2);
+
+            Simple loaded = target.get(Simple.class, obj1.getId());
+            assertEquals(obj1, loaded);
+
+            List<Simple> result = target.getByQuery(Simple.class, "SELECT * FROM simple");
+            assertEquals(2, result.size());
+
+            target.delete(obj1);
+            target.delete(obj2);
+        } finally {
+            MappingSession.setUseRowMappers(false);
+        }
+    }
+
     private Simple buildSimpleEntity() {
         Simple obj = new Simple();
         obj.setTimestamp(new Date());
@@ -0,0 +1,33 @@
+package com.datastax.driver.mapping.entity;
+
+import java.util.UUID;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Table(name = "test_entity_cached")
+@Cacheable
+public class EntityCached {
+	
+	@Id
+	private UUID id;
+	private String email;
+
+	public UUID getId() {
+		return id;
+	}
+
+	public void setId(UUID id) {
+		this.id = id;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public void setEmail(String email) {
+		this.email = email;
+	}
+
+}
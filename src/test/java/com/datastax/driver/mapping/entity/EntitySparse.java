@@ -0,0 +1,43 @@
+package com.datastax.driver.mapping.entity;
+
+import java.util.UUID;
+
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import com.datastax.driver.mapping.annotation.SkipNulls;
+
+@Table(name = "test_entity_sparse")
+@SkipNulls
+public class EntitySparse {
+	
+	@Id
+	private UUID id;
+	private String name;
+	private String email;
+
+	public UUID getId() {
+		return id;
+	}
+
+	public void setId(UUID id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public void setEmail(String email) {
+		this.email = email;
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.entity.generated;
+
+import java.util.Date;
+
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import com.datastax.driver.mapping.entity.CompositeKey;
+
+/**
+ * The only test entity compiled with EntityMetadataProcessor, the others are
+ * parsed with reflection.
+ */
+@Entity
+@Table(name = "test_entity_generated")
+public class EntityGenerated {
+
+	@EmbeddedId
+	private CompositeKey key;
+
+	private Date asof;
+
+	@Version
+	private long version;
+
+	public CompositeKey getKey() {
+		return key;
+	}
+
+	public void setKey(CompositeKey key) {
+		this.key = key;
+	}
+
+	public Date getAsof() {
+		return asof;
+	}
+
+	public void setAsof(Date asof) {
+		this.asof = asof;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.entity.generated;
+
+import javax.persistence.EmbeddedId;
+import javax.persistence.Table;
+
+import com.datastax.driver.mapping.annotation.Static;
+import com.datastax.driver.mapping.entity.ClusteringKey;
+
+/**
+ * Compiled with EntityMetadataProcessor, its generated metadata is compared
+ * with the metadata parsed with reflection.
+ */
+@Table(name = "test_entity_generated_static")
+public class EntityGeneratedStatic {
+
+	@EmbeddedId
+	private ClusteringKey key;
+
+	@Static
+	private long balance;
+	private Boolean paid;
+
+	// java static field with instance accessors is mapped by the parser too
+	private static String region;
+
+	public ClusteringKey getKey() {
+		return key;
+	}
+
+	public void setKey(ClusteringKey key) {
+		this.key = key;
+	}
+
+	public long getBalance() {
+		return balance;
+	}
+
+	public void setBalance(long balance) {
+		this.balance = balance;
+	}
+
+	public Boolean getPaid() {
+		return paid;
+	}
+
+	public void setPaid(Boolean paid) {
+		this.paid = paid;
+	}
+
+	public String getRegion() {
+		return region;
+	}
+
+	public void setRegion(String region) {
+		EntityGeneratedStatic.region = region;
+	}
+}